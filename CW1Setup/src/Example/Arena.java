@@ -0,0 +1,488 @@
+package Example;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Hundreds or thousands of computer snakes on one board, stepped together.
+ * A tick runs in passes, each split across a fork-join pool:
+ *
+ * <ol>
+ * <li>every snake picks its move, reading the board but not changing it;</li>
+ * <li>every snake's tail leaves its cell, if it is not growing;</li>
+ * <li>the board is cut into stripes of rows, and each stripe settles the
+ *     moves into its own cells: a move into a wall, body or brick dies,
+ *     and when several snakes go for the same cell they all die;</li>
+ * <li>each stripe moves the survivors' heads into its cells.</li>
+ * </ol>
+ *
+ * Then, on one thread, the dead are cleared off the board and left as
+ * food, snakes whose wait is up are put back, and food is topped up.
+ *
+ * No pass depends on the order snakes are handled in or on how the work
+ * is split: a snake's choice depends only on the board and its own random
+ * state, every claim on a cell is settled by the one stripe that owns it,
+ * and each snake or cell is written by one task only. So a tick comes out
+ * the same on any number of threads, bit for bit, which {@link #checksum}
+ * lets a caller check.
+ *
+ * Run it to compare a single thread with the pool on the same arena.
+ */
+public class Arena implements AutoCloseable {
+    public static final byte EMPTY = OccupancyGrid.EMPTY;
+    public static final byte BODY = OccupancyGrid.BODY;
+    public static final byte OBSTACLE = OccupancyGrid.OBSTACLE;
+    public static final byte FOOD = OccupancyGrid.FOOD;
+
+    private static final int START_SIZE = 3;
+    private static final int RESPAWN_TICKS = 20;
+    // how far a snake looks for food
+    private static final int SIGHT = 6;
+    private static final int STRIPE_ROWS = 16;
+    private static final int SNAKES_PER_TASK = 64;
+    private static final int[] STEP_X = {0, 1, 0, -1};
+    private static final int[] STEP_Y = {-1, 0, 1, 0};
+    // straight on, right, left
+    private static final int[] TURNS = {0, 1, 3};
+
+    private static final int DECIDE = 0, LEAVE = 1, CLAIM = 2, MOVE = 3;
+
+    private final int cols, rows;
+    private final byte[] cells;
+    // tick each cell was last claimed in, and by which snake
+    private final int[] claimTick;
+    private final int[] claimer;
+
+    private final int snakes;
+    private final SnakeBody[] bodies;
+    private final int[] direction, size, score;
+    private final long[] randomState;
+    private final boolean[] alive, dies;
+    // cell each snake moves into this tick, or -1 for off the board
+    private final int[] target;
+    private final long[] respawnAt;
+    private long deaths;
+
+    private final int stripes;
+    // snakes moving into each stripe, by id: bucket[bucketStart[s]] up to bucketStart[s + 1]
+    private final int[] bucketStart;
+    private final int[] bucket;
+    private final int[] eaten;
+    private final int[] fill;
+
+    private final ForkJoinPool pool;
+    private final Random random;
+    private final int foodTarget;
+    private int foodCount;
+    private int tick;
+
+    /**
+     * An arena of {@code snakes} snakes on a {@code cols} by {@code rows}
+     * board with the bricks of {@code level}. {@code threads} of 1 runs
+     * every pass on the calling thread.
+     */
+    public Arena(int cols, int rows, int snakes, int level, long seed, int threads) {
+        if (cols < 1 || rows < 1 || cols > Short.MAX_VALUE || rows > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Board must be 1 to 32767 cells a side: " + cols + "x" + rows);
+        }
+        this.cols = cols;
+        this.rows = rows;
+        this.snakes = snakes;
+        this.cells = new byte[cols * rows];
+        this.claimTick = new int[cols * rows];
+        this.claimer = new int[cols * rows];
+        this.bodies = new SnakeBody[snakes];
+        this.direction = new int[snakes];
+        this.size = new int[snakes];
+        this.score = new int[snakes];
+        this.randomState = new long[snakes];
+        this.alive = new boolean[snakes];
+        this.dies = new boolean[snakes];
+        this.target = new int[snakes];
+        this.respawnAt = new long[snakes];
+        this.stripes = (rows + STRIPE_ROWS - 1) / STRIPE_ROWS;
+        this.bucketStart = new int[stripes + 1];
+        this.bucket = new int[snakes];
+        this.eaten = new int[stripes];
+        this.fill = new int[stripes];
+        this.pool = threads > 1 ? new ForkJoinPool(threads) : null;
+        this.random = new Random(seed);
+        this.foodTarget = Math.max(1, snakes / 2);
+
+        OccupancyGrid layout = new OccupancyGrid(cols, rows);
+        LevelGenerator generator = new LevelGenerator();
+        int bricks = generator.generate(layout, random, LevelGenerator.forLevel(level), -1000, -1000, GameEngine.NONE);
+        for (int i = 0; i < bricks; i++) {
+            cells[generator.getPlaced()[i]] = OBSTACLE;
+        }
+        for (int i = 0; i < snakes; i++) {
+            bodies[i] = new SnakeBody(16);
+            // never zero, or the generator would stay stuck there
+            randomState[i] = (seed + i) * 0x9E3779B97F4A7C15L | 1;
+        }
+        respawn();
+        topUpFood();
+    }
+
+    /** Runs one tick and returns how many snakes were alive going into it. */
+    public int step() {
+        tick++;
+        int moving = 0;
+        for (int i = 0; i < snakes; i++) {
+            dies[i] = false;
+            if (alive[i]) {
+                moving++;
+            }
+        }
+        run(DECIDE, snakes, SNAKES_PER_TASK);
+        run(LEAVE, snakes, SNAKES_PER_TASK);
+        sortIntoStripes();
+        run(CLAIM, stripes, 1);
+        run(MOVE, stripes, 1);
+        for (int s = 0; s < stripes; s++) {
+            foodCount -= eaten[s];
+        }
+        for (int i = 0; i < snakes; i++) {
+            if (alive[i] && dies[i]) {
+                kill(i);
+            }
+        }
+        respawn();
+        topUpFood();
+        return moving;
+    }
+
+    private void run(int pass, int count, int grain) {
+        if (pool == null) {
+            for (int i = 0; i < count; i++) {
+                work(pass, i);
+            }
+        } else {
+            pool.invoke(new Pass(pass, 0, count, grain));
+        }
+    }
+
+    private class Pass extends RecursiveAction {
+        private static final long serialVersionUID = 616277912500390221L;
+
+        private final int pass, from, to, grain;
+
+        Pass(int pass, int from, int to, int grain) {
+            this.pass = pass;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                for (int i = from; i < to; i++) {
+                    work(pass, i);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Pass(pass, from, middle, grain), new Pass(pass, middle, to, grain));
+            }
+        }
+    }
+
+    private void work(int pass, int i) {
+        switch (pass) {
+            case DECIDE:
+                decide(i);
+                break;
+            case LEAVE:
+                leave(i);
+                break;
+            case CLAIM:
+                claim(i);
+                break;
+            default:
+                move(i);
+                break;
+        }
+    }
+
+    /**
+     * Picks straight on, left or right for snake {@code i}: never into
+     * something solid if there is a choice, towards the nearest food in
+     * sight, away from tight spots, and a little at random.
+     */
+    private void decide(int i) {
+        if (!alive[i]) {
+            return;
+        }
+        int head = bodies[i].head();
+        int hx = SnakeBody.x(head), hy = SnakeBody.y(head);
+        int foodX = -1, foodY = -1, nearest = Integer.MAX_VALUE;
+        for (int y = Math.max(0, hy - SIGHT); y <= Math.min(rows - 1, hy + SIGHT); y++) {
+            for (int x = Math.max(0, hx - SIGHT); x <= Math.min(cols - 1, hx + SIGHT); x++) {
+                int distance = Math.abs(x - hx) + Math.abs(y - hy);
+                if (cells[y * cols + x] == FOOD && distance < nearest) {
+                    nearest = distance;
+                    foodX = x;
+                    foodY = y;
+                }
+            }
+        }
+        long state = randomState[i];
+        int best = direction[i], bestScore = Integer.MIN_VALUE;
+        for (int turn : TURNS) {
+            int d = (direction[i] + turn) & 3;
+            int x = hx + STEP_X[d], y = hy + STEP_Y[d];
+            if (!isOpen(x, y)) {
+                continue;
+            }
+            state ^= state >>> 12;
+            state ^= state << 25;
+            state ^= state >>> 27;
+            int points = openAround(x, y) * 8 + (int) ((state * 0x2545F4914F6CDD1DL) >>> 61);
+            if (foodX >= 0) {
+                points -= (Math.abs(x - foodX) + Math.abs(y - foodY)) * 4;
+            }
+            if (points > bestScore) {
+                bestScore = points;
+                best = d;
+            }
+        }
+        randomState[i] = state;
+        direction[i] = best;
+        int x = hx + STEP_X[best], y = hy + STEP_Y[best];
+        target[i] = x >= 0 && y >= 0 && x < cols && y < rows ? y * cols + x : -1;
+    }
+
+    private boolean isOpen(int x, int y) {
+        return x >= 0 && y >= 0 && x < cols && y < rows && (cells[y * cols + x] & OccupancyGrid.BLOCKED) == 0;
+    }
+
+    private int openAround(int x, int y) {
+        int open = 0;
+        for (int d = 0; d < 4; d++) {
+            if (isOpen(x + STEP_X[d], y + STEP_Y[d])) {
+                open++;
+            }
+        }
+        return open;
+    }
+
+    /** The tail leaves before any head arrives, so following a tail is safe. */
+    private void leave(int i) {
+        if (alive[i] && bodies[i].length() >= size[i]) {
+            int tail = bodies[i].popTail();
+            cells[SnakeBody.y(tail) * cols + SnakeBody.x(tail)] = EMPTY;
+        }
+    }
+
+    /** Groups the moving snakes by the stripe they move into, keeping them in id order. */
+    private void sortIntoStripes() {
+        Arrays.fill(bucketStart, 0);
+        for (int i = 0; i < snakes; i++) {
+            if (alive[i]) {
+                if (target[i] < 0) {
+                    dies[i] = true;
+                } else {
+                    bucketStart[target[i] / cols / STRIPE_ROWS + 1]++;
+                }
+            }
+        }
+        for (int s = 0; s < stripes; s++) {
+            bucketStart[s + 1] += bucketStart[s];
+        }
+        System.arraycopy(bucketStart, 0, fill, 0, stripes);
+        for (int i = 0; i < snakes; i++) {
+            if (alive[i] && target[i] >= 0) {
+                bucket[fill[target[i] / cols / STRIPE_ROWS]++] = i;
+            }
+        }
+    }
+
+    private void claim(int stripe) {
+        for (int k = bucketStart[stripe]; k < bucketStart[stripe + 1]; k++) {
+            int i = bucket[k], cell = target[i];
+            if (claimTick[cell] == tick) {
+                // head on: whoever else wants the cell dies as well
+                dies[i] = true;
+                dies[claimer[cell]] = true;
+            } else {
+                claimTick[cell] = tick;
+                claimer[cell] = i;
+                if ((cells[cell] & OccupancyGrid.BLOCKED) != 0) {
+                    dies[i] = true;
+                }
+            }
+        }
+    }
+
+    private void move(int stripe) {
+        int ate = 0;
+        for (int k = bucketStart[stripe]; k < bucketStart[stripe + 1]; k++) {
+            int i = bucket[k], cell = target[i];
+            if (dies[i]) {
+                continue;
+            }
+            if (cells[cell] == FOOD) {
+                size[i]++;
+                score[i] += 10;
+                ate++;
+            }
+            cells[cell] = BODY;
+            bodies[i].pushHead(SnakeBody.pack(cell % cols, cell / cols));
+        }
+        eaten[stripe] = ate;
+    }
+
+    /** Takes a snake off the board, leaving food on every other segment. */
+    private void kill(int i) {
+        SnakeBody body = bodies[i];
+        for (int k = 0; k < body.length(); k++) {
+            int c = SnakeBody.y(body.get(k)) * cols + SnakeBody.x(body.get(k));
+            if (k % 2 == 1 && cells[c] == BODY) {
+                cells[c] = FOOD;
+                foodCount++;
+            } else {
+                cells[c] = EMPTY;
+            }
+        }
+        body.clear();
+        alive[i] = false;
+        respawnAt[i] = tick + RESPAWN_TICKS;
+        deaths++;
+    }
+
+    /** Puts back snakes whose wait is over, each on a free straight run of cells. */
+    private void respawn() {
+        for (int i = 0; i < snakes; i++) {
+            if (alive[i] || tick < respawnAt[i]) {
+                continue;
+            }
+            int x = random.nextInt(cols), y = random.nextInt(rows), d = random.nextInt(4);
+            boolean free = true;
+            for (int k = 0; k < START_SIZE && free; k++) {
+                free = isEmpty(x - STEP_X[d] * k, y - STEP_Y[d] * k);
+            }
+            if (!free) {
+                // try again next tick
+                continue;
+            }
+            for (int k = 0; k < START_SIZE; k++) {
+                int cx = x - STEP_X[d] * k, cy = y - STEP_Y[d] * k;
+                cells[cy * cols + cx] = BODY;
+                bodies[i].pushTail(SnakeBody.pack(cx, cy));
+            }
+            direction[i] = d;
+            size[i] = START_SIZE;
+            score[i] = 0;
+            alive[i] = true;
+        }
+    }
+
+    private boolean isEmpty(int x, int y) {
+        return x >= 0 && y >= 0 && x < cols && y < rows && cells[y * cols + x] == EMPTY;
+    }
+
+    private void topUpFood() {
+        for (int tries = 0; foodCount < foodTarget && tries < foodTarget * 2; tries++) {
+            int c = random.nextInt(cells.length);
+            if (cells[c] == EMPTY) {
+                cells[c] = FOOD;
+                foodCount++;
+            }
+        }
+    }
+
+    /** A hash of the whole board and every snake, equal for equal arenas. */
+    public long checksum() {
+        long hash = tick;
+        for (byte cell : cells) {
+            hash = hash * 31 + cell;
+        }
+        for (int i = 0; i < snakes; i++) {
+            hash = hash * 31 + (alive[i] ? bodies[i].head() : -1);
+            hash = hash * 31 + score[i];
+            hash = hash * 31 + bodies[i].length();
+        }
+        return hash;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getSnakeCount() {
+        return snakes;
+    }
+
+    public int getTick() {
+        return tick;
+    }
+
+    public boolean isAlive(int i) {
+        return alive[i];
+    }
+
+    public int getScore(int i) {
+        return score[i];
+    }
+
+    public int getLength(int i) {
+        return bodies[i].length();
+    }
+
+    public int getSegmentX(int i, int segment) {
+        return SnakeBody.x(bodies[i].get(segment));
+    }
+
+    public int getSegmentY(int i, int segment) {
+        return SnakeBody.y(bodies[i].get(segment));
+    }
+
+    public byte get(int x, int y) {
+        return cells[y * cols + x];
+    }
+
+    /** Snakes that have died since the arena was made. */
+    public long getDeaths() {
+        return deaths;
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    public static void main(String[] args) {
+        int snakes = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int side = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int ticks = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        long single = 0;
+        for (int t : new int[]{1, threads}) {
+            try (Arena arena = new Arena(side, side, snakes, 2, 42, t)) {
+                long snakeTicks = 0;
+                long start = System.nanoTime();
+                for (int i = 0; i < ticks; i++) {
+                    snakeTicks += arena.step();
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("%d snakes on %dx%d, %d thread(s): %.0f snake-ticks/s, %d deaths, checksum %016x%n",
+                        snakes, side, side, t, snakeTicks / seconds, arena.getDeaths(), arena.checksum());
+                if (t == 1) {
+                    single = arena.checksum();
+                } else if (arena.checksum() != single) {
+                    System.out.println("Threaded run differs from the single-threaded one");
+                    System.exit(1);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package Example;
+
+import java.awt.Image;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decodes images on a small pool of background threads. Each image is
+ * registered under a key first and only decoded when somebody asks for it,
+ * so the start screen can ask for its own pictures up front and let the
+ * rest stream in while the player is still looking at it.
+ *
+ * {@link #get} blocks until that one image is ready, which makes it a drop
+ * in for the plain map {@link ImageUtil} used to have.
+ */
+public class AssetLoader {
+    private final ExecutorService executor;
+    private final Map<String, String> paths = new LinkedHashMap<>();
+    private final Map<String, CompletableFuture<Image>> loads = new ConcurrentHashMap<>();
+    private final Map<String, Long> decodeNanos = new ConcurrentHashMap<>();
+    private final long created = System.nanoTime();
+
+    public AssetLoader(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "asset-loader-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public AssetLoader() {
+        this(Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors())));
+    }
+
+    public synchronized void register(String key, String path) {
+        paths.put(key, path);
+    }
+
+    /** Starts decoding {@code key} if nobody has asked for it yet. */
+    public CompletableFuture<Image> request(String key) {
+        CompletableFuture<Image> load = loads.get(key);
+        if (load != null) {
+            return load;
+        }
+        String path;
+        synchronized (this) {
+            path = paths.get(key);
+        }
+        if (path == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return loads.computeIfAbsent(key, k -> CompletableFuture.supplyAsync(() -> decode(k, path), executor));
+    }
+
+    private Image decode(String key, String path) {
+        long start = System.nanoTime();
+        Image image = GameUtil.getImage(path);
+        decodeNanos.put(key, System.nanoTime() - start);
+        return image;
+    }
+
+    public CompletableFuture<Void> request(String... keys) {
+        CompletableFuture<?>[] pending = new CompletableFuture<?>[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            pending[i] = request(keys[i]);
+        }
+        return CompletableFuture.allOf(pending);
+    }
+
+    /** Starts everything that has not been asked for yet, in registration order. */
+    public CompletableFuture<Void> requestAll() {
+        String[] keys;
+        synchronized (this) {
+            keys = paths.keySet().toArray(new String[0]);
+        }
+        return request(keys);
+    }
+
+    /** The decoded image, waiting for it if needed; null for an unknown key. */
+    public Image get(String key) {
+        return request(key).join();
+    }
+
+    public boolean isLoaded(String key) {
+        CompletableFuture<Image> load = loads.get(key);
+        return load != null && load.isDone();
+    }
+
+    /** How long each finished image took to decode, in nanoseconds. */
+    public Map<String, Long> decodeTimes() {
+        return new LinkedHashMap<>(decodeNanos);
+    }
+
+    public String report() {
+        StringBuilder sb = new StringBuilder("Asset decode times:\n");
+        long total = 0;
+        for (Map.Entry<String, Long> entry : decodeNanos.entrySet()) {
+            total += entry.getValue();
+            sb.append(String.format("  %-20s %7.1f ms%n", entry.getKey(), entry.getValue() / 1e6));
+        }
+        sb.append(String.format("  %d images, %.1f ms decoding, %.1f ms since start%n",
+                decodeNanos.size(), total / 1e6, (System.nanoTime() - created) / 1e6));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,465 @@
+package Example;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Plays a {@link GameEngine} by itself, for demos and for soak testing.
+ * Each tick it looks for the shortest way to the food with A*, keeping
+ * off bricks, the snake's own body and where the red dot is heading. It
+ * only takes that way if, once the snake has followed it and eaten, the
+ * head can still get round to the tail; otherwise it stalls on whichever
+ * move leaves it the most room.
+ *
+ * Body cells count as free once the tail will have left them by the time
+ * the head gets there, so the snake happily follows its own tail.
+ *
+ * All the searching works on int arrays sized to the board and kept from
+ * one decision to the next. Cells are marked visited with the number of
+ * the search rather than a flag, so nothing needs clearing between
+ * searches and a decision allocates nothing. While the food stays put
+ * and the rest of the last path is still clear the pilot keeps to it
+ * rather than searching again, which on a big board is most ticks.
+ */
+public class Autopilot implements Strategy {
+    private static final int[] STEP_X = {0, 1, 0, -1};
+    private static final int[] STEP_Y = {-1, 0, 1, 0};
+    // ticks ahead the red dot's path is kept clear of, fewer than 30 to fit the bits
+    private static final int RED_DOT_TICKS = 12;
+
+    private final int maxExpansions;
+    private int cols, rows;
+    private OccupancyGrid grid;
+
+    // visited marks and costs of the search under way
+    private int[] seen = new int[0];
+    private int search;
+    private int[] cost = new int[0];
+    private int[] parent = new int[0];
+    private int[] queue = new int[0];
+    private int[] heapCell = new int[0];
+    private long[] heapKey = new long[0];
+    private int heapSize;
+    // body cells, and how many ticks until the tail has left each one
+    private int[] bodyMark = new int[0];
+    private int bodySearch;
+    private int[] leavesAfter = new int[0];
+    // where the snake would be after following the path
+    private int[] virtualMark = new int[0];
+    private int virtualSearch;
+    // cells the red dot will cover, and in which ticks as bits
+    private int[] danger = new int[0];
+    private int dangerSearch;
+    private int[] dangerTicks = new int[0];
+    // the way to the food, path[pathStart] being the next cell to step onto
+    private int[] path = new int[0];
+    private int pathStart, pathLength;
+    private int pathFood = -1;
+
+    /** A pilot that gives up on a path after looking at {@code maxExpansions} cells. */
+    public Autopilot(int maxExpansions) {
+        this.maxExpansions = maxExpansions;
+    }
+
+    public Autopilot() {
+        this(200_000);
+    }
+
+    /** The way to turn for the next tick. */
+    @Override
+    public int decide(GameEngine engine) {
+        prepare(engine);
+        int head = grid.index(engine.getHeadX(), engine.getHeadY());
+        int food = engine.getFoodX() >= 0 ? grid.index(engine.getFoodX(), engine.getFoodY()) : -1;
+        if (food >= 0 && (keepPath(head, food) && tailReachableAfterPath(engine)
+                || findPath(head, food) && tailReachableAfterPath(engine))) {
+            int next = path[pathStart];
+            return GameEngine.directionBetween(head % cols, head / cols, next % cols, next / cols);
+        }
+        pathFood = -1;
+        pathStart = pathLength = 0;
+        return roomiestMove(engine, head, food);
+    }
+
+    /** Cells on the way to the food found by the last decision, 0 if it found none. */
+    public int getPathLength() {
+        return pathLength - pathStart;
+    }
+
+    /**
+     * Moves along the last path if the head took its first step and the
+     * food is where it was, and checks what is left is still clear.
+     */
+    private boolean keepPath(int head, int food) {
+        if (food != pathFood || pathStart >= pathLength - 1 || path[pathStart] != head) {
+            return false;
+        }
+        pathStart++;
+        for (int i = pathStart; i < pathLength; i++) {
+            if (!passable(path[i], i - pathStart + 1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void prepare(GameEngine engine) {
+        grid = engine.getGrid();
+        int cells = engine.getCols() * engine.getRows();
+        if (seen.length != cells) {
+            seen = new int[cells];
+            cost = new int[cells];
+            parent = new int[cells];
+            queue = new int[cells];
+            heapCell = new int[cells * 2];
+            heapKey = new long[cells * 2];
+            bodyMark = new int[cells];
+            leavesAfter = new int[cells];
+            virtualMark = new int[cells];
+            danger = new int[cells];
+            dangerTicks = new int[cells];
+            path = new int[cells];
+            pathFood = -1;
+            pathStart = pathLength = 0;
+            search = bodySearch = virtualSearch = dangerSearch = 0;
+        }
+        cols = engine.getCols();
+        rows = engine.getRows();
+
+        bodySearch = next(bodyMark, bodySearch);
+        int length = engine.getLength();
+        int growing = Math.max(0, engine.getSize() - length);
+        for (int i = 0; i < length; i++) {
+            int cell = grid.index(engine.getSegmentX(i), engine.getSegmentY(i));
+            bodyMark[cell] = bodySearch;
+            leavesAfter[cell] = length - i + growing;
+        }
+
+        dangerSearch = next(danger, dangerSearch);
+        Entities redDots = engine.getRedDots();
+        for (int i = 0; i < redDots.count(); i++) {
+            int x = redDots.getX(i), y = redDots.getY(i);
+            int dx = redDots.getDx(i), dy = redDots.getDy(i);
+            for (int t = 1; t <= RED_DOT_TICKS; t++) {
+                // moved and bounced off the edges the way the engine does it
+                x += dx;
+                y += dy;
+                if (x < 0 || x > cols * GameEngine.CELL - GameEngine.CELL) {
+                    dx = -dx;
+                }
+                if (y < 0 || y > rows * GameEngine.CELL - GameEngine.CELL) {
+                    dy = -dy;
+                }
+                // a tick either side, as the head and the dot both move between ticks
+                markDanger(x, y, 7 << (t - 1));
+            }
+        }
+    }
+
+    /** Marks every cell a red dot at pixel ({@code px}, {@code py}) overlaps in {@code ticks}. */
+    private void markDanger(int px, int py, int ticks) {
+        int x0 = Math.floorDiv(px, GameEngine.CELL), y0 = Math.floorDiv(py, GameEngine.CELL);
+        int x1 = Math.floorDiv(px + GameEngine.CELL - 1, GameEngine.CELL);
+        int y1 = Math.floorDiv(py + GameEngine.CELL - 1, GameEngine.CELL);
+        for (int y = y0; y <= y1; y++) {
+            for (int x = x0; x <= x1; x++) {
+                if (grid.inside(x, y)) {
+                    int cell = grid.index(x, y);
+                    if (danger[cell] != dangerSearch) {
+                        danger[cell] = dangerSearch;
+                        dangerTicks[cell] = 0;
+                    }
+                    dangerTicks[cell] |= ticks;
+                }
+            }
+        }
+    }
+
+    /** Starts a new numbering for {@code marks}, clearing it only when the numbers run out. */
+    private static int next(int[] marks, int current) {
+        if (current == Integer.MAX_VALUE) {
+            Arrays.fill(marks, 0);
+            return 1;
+        }
+        return current + 1;
+    }
+
+    /** Whether the head could be on {@code cell} {@code ticks} from now. */
+    private boolean passable(int cell, int ticks) {
+        if (danger[cell] == dangerSearch && ticks < 32 && (dangerTicks[cell] & 1 << ticks) != 0) {
+            return false;
+        }
+        return solidGone(cell, ticks);
+    }
+
+    /** Like {@link #passable} but ignoring the red dot. */
+    private boolean solidGone(int cell, int ticks) {
+        if ((grid.get(cell) & OccupancyGrid.OBSTACLE) != 0) {
+            return false;
+        }
+        // food only comes at the end of a path, so nothing holds the tail back on the way
+        return bodyMark[cell] != bodySearch || ticks >= leavesAfter[cell];
+    }
+
+    /**
+     * A* from {@code head} to {@code food}, leaving the cells after the
+     * head in {@link #path}. Equal guesses go to the deeper cell first,
+     * which heads straight for the food on an open board.
+     */
+    private boolean findPath(int head, int food) {
+        search = next(seen, search);
+        heapSize = 0;
+        int foodX = food % cols, foodY = food / cols;
+        seen[head] = search;
+        cost[head] = 0;
+        push(head, 0, distance(head, foodX, foodY));
+        int expansions = 0;
+        pathFood = -1;
+        pathStart = pathLength = 0;
+        while (heapSize > 0 && expansions++ < maxExpansions) {
+            long key = heapKey[0];
+            int cell = pop();
+            if (Integer.MAX_VALUE - (int) key != cost[cell]) {
+                // a cheaper way here was found after this one was queued
+                continue;
+            }
+            if (cell == food) {
+                for (int c = food; c != head; c = parent[c]) {
+                    pathLength++;
+                }
+                int at = pathLength;
+                for (int c = food; c != head; c = parent[c]) {
+                    path[--at] = c;
+                }
+                pathFood = food;
+                return true;
+            }
+            int x = cell % cols, y = cell / cols, g = cost[cell] + 1;
+            for (int d = 0; d < 4; d++) {
+                int nx = x + STEP_X[d], ny = y + STEP_Y[d];
+                if (nx < 0 || ny < 0 || nx >= cols || ny >= rows) {
+                    continue;
+                }
+                int n = ny * cols + nx;
+                if ((seen[n] != search || g < cost[n]) && passable(n, g)) {
+                    seen[n] = search;
+                    cost[n] = g;
+                    parent[n] = cell;
+                    push(n, g, g + distance(n, foodX, foodY));
+                }
+            }
+        }
+        return false;
+    }
+
+    private int distance(int cell, int x, int y) {
+        return Math.abs(cell % cols - x) + Math.abs(cell / cols - y);
+    }
+
+    private void push(int cell, int g, int f) {
+        if (heapSize == heapCell.length) {
+            // only a board with very many reopened cells gets here
+            heapCell = Arrays.copyOf(heapCell, heapSize * 2);
+            heapKey = Arrays.copyOf(heapKey, heapSize * 2);
+        }
+        long key = (long) f << 32 | (Integer.MAX_VALUE - g);
+        int i = heapSize++;
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (heapKey[up] <= key) {
+                break;
+            }
+            heapKey[i] = heapKey[up];
+            heapCell[i] = heapCell[up];
+            i = up;
+        }
+        heapKey[i] = key;
+        heapCell[i] = cell;
+    }
+
+    private int pop() {
+        int top = heapCell[0];
+        long key = heapKey[--heapSize];
+        int cell = heapCell[heapSize];
+        int i = 0;
+        while (true) {
+            int child = i * 2 + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heapKey[child + 1] < heapKey[child]) {
+                child++;
+            }
+            if (heapKey[child] >= key) {
+                break;
+            }
+            heapKey[i] = heapKey[child];
+            heapCell[i] = heapCell[child];
+            i = child;
+        }
+        heapKey[i] = key;
+        heapCell[i] = cell;
+        return top;
+    }
+
+    /**
+     * Lays the snake along the path as it would be on eating the food and
+     * checks its head can still reach its tail, so it is not walled in.
+     * Finding plenty of room on the way counts as well.
+     */
+    private boolean tailReachableAfterPath(GameEngine engine) {
+        int length = engine.getLength();
+        int newLength = Math.max(length, engine.getSize()) + 1;
+        virtualSearch = next(virtualMark, virtualSearch);
+        int steps = pathLength - pathStart;
+        int tail = -1;
+        for (int i = 0; i < newLength; i++) {
+            int cell;
+            if (i < steps) {
+                cell = path[pathLength - 1 - i];
+            } else if (i - steps < length) {
+                cell = grid.index(engine.getSegmentX(i - steps), engine.getSegmentY(i - steps));
+            } else {
+                break;
+            }
+            virtualMark[cell] = virtualSearch;
+            tail = cell;
+        }
+        int head = path[pathLength - 1];
+        // the tail moves off as the head moves on, so it is the one body cell to aim for
+        virtualMark[tail] = 0;
+
+        search = next(seen, search);
+        int enough = newLength * 2 + 16;
+        int first = 0, last = 0;
+        queue[last++] = head;
+        seen[head] = search;
+        while (first < last) {
+            int cell = queue[first++];
+            if (cell == tail || last >= enough) {
+                return true;
+            }
+            int x = cell % cols, y = cell / cols;
+            for (int d = 0; d < 4; d++) {
+                int nx = x + STEP_X[d], ny = y + STEP_Y[d];
+                if (nx < 0 || ny < 0 || nx >= cols || ny >= rows) {
+                    continue;
+                }
+                int n = ny * cols + nx;
+                if (seen[n] != search && virtualMark[n] != virtualSearch
+                        && (grid.get(n) & OccupancyGrid.OBSTACLE) == 0) {
+                    seen[n] = search;
+                    queue[last++] = n;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The move with the most room behind it, counting up to a bit more
+     * than the snake's length; the nearer the food the better when two
+     * have the same.
+     */
+    private int roomiestMove(GameEngine engine, int head, int food) {
+        int hx = head % cols, hy = head / cols;
+        int best = -1, bestRoom = -1, bestDistance = Integer.MAX_VALUE;
+        int enough = engine.getLength() * 2 + 16;
+        for (int d = 0; d < 4; d++) {
+            if (d == GameEngine.opposite(engine.getDirection())) {
+                continue;
+            }
+            int nx = hx + STEP_X[d], ny = hy + STEP_Y[d];
+            if (nx < 0 || ny < 0 || nx >= cols || ny >= rows || !passable(ny * cols + nx, 1)) {
+                continue;
+            }
+            int room = room(ny * cols + nx, enough);
+            int distance = food >= 0 ? distance(ny * cols + nx, food % cols, food / cols) : 0;
+            if (room > bestRoom || (room == bestRoom && distance < bestDistance)) {
+                best = d;
+                bestRoom = room;
+                bestDistance = distance;
+            }
+        }
+        if (best >= 0) {
+            return best;
+        }
+        // boxed in by the red dot's path: better to risk it than hit something for sure
+        for (int d = 0; d < 4; d++) {
+            int nx = hx + STEP_X[d], ny = hy + STEP_Y[d];
+            if (d != GameEngine.opposite(engine.getDirection()) && nx >= 0 && ny >= 0 && nx < cols && ny < rows
+                    && solidGone(ny * cols + nx, 1)) {
+                return d;
+            }
+        }
+        return engine.getDirection();
+    }
+
+    /** Cells reachable from {@code start}, one tick away, counting no further than {@code enough}. */
+    private int room(int start, int enough) {
+        search = next(seen, search);
+        int first = 0, last = 0;
+        queue[last] = start;
+        cost[start] = 1;
+        seen[start] = search;
+        last++;
+        while (first < last && last < enough) {
+            int cell = queue[first++];
+            int x = cell % cols, y = cell / cols, g = cost[cell] + 1;
+            for (int d = 0; d < 4; d++) {
+                int nx = x + STEP_X[d], ny = y + STEP_Y[d];
+                if (nx < 0 || ny < 0 || nx >= cols || ny >= rows) {
+                    continue;
+                }
+                int n = ny * cols + nx;
+                if (seen[n] != search && passable(n, g)) {
+                    seen[n] = search;
+                    cost[n] = g;
+                    queue[last++] = n;
+                }
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Soak test: plays games headless on a tick clock and prints scores,
+     * how the games ended and how long decisions took.
+     * {@code java Example.Autopilot [games] [cols] [rows] [level] [max ticks]}
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int cols = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+        int rows = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int level = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+        int maxTicks = args.length > 4 ? Integer.parseInt(args[4]) : cols * rows * 20;
+
+        Autopilot pilot = new Autopilot();
+        LatencyHistogram decisions = new LatencyHistogram();
+        int[] outcomes = new int[GameEngine.Outcome.values().length];
+        long totalScore = 0, totalTicks = 0;
+        for (int game = 0; game < games; game++) {
+            GameEngine engine = new GameEngine(cols, rows, new Random(), 100);
+            engine.restart(game, level);
+            GameEngine.Outcome outcome = GameEngine.Outcome.RUNNING;
+            while (!outcome.isDeath() && engine.getTick() < maxTicks) {
+                long start = System.nanoTime();
+                int direction = pilot.decide(engine);
+                decisions.record(System.nanoTime() - start);
+                outcome = engine.step(direction);
+            }
+            outcomes[outcome.ordinal()]++;
+            totalScore += engine.getScore();
+            totalTicks += engine.getTick();
+        }
+        System.out.printf("%d games on %dx%d level %d: mean score %.1f, mean %.0f ticks%n",
+                games, cols, rows, level, (double) totalScore / games, (double) totalTicks / games);
+        for (GameEngine.Outcome outcome : GameEngine.Outcome.values()) {
+            if (outcomes[outcome.ordinal()] > 0) {
+                System.out.println("  " + (outcome.isDeath() ? outcome : "still going") + ": " + outcomes[outcome.ordinal()]);
+            }
+        }
+        System.out.printf("decisions: p50 %.1f us, p99 %.1f us, max %.1f us%n", decisions.percentile(0.5) / 1e3,
+                decisions.percentile(0.99) / 1e3, decisions.max() / 1e3);
+    }
+}
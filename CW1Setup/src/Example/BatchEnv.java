@@ -0,0 +1,333 @@
+package Example;
+
+import java.util.Arrays;
+
+/**
+ * Many independent games stepped together, for training bots without
+ * Swing or a timer in the way. One call to {@link #step} takes an action
+ * for every board and leaves, in arrays that are kept from call to call,
+ * what each board looks like now, the reward it earned and whether its
+ * game ended. A board whose game ends is restarted on the spot with the
+ * next seed, so the arrays always show a game in progress.
+ *
+ * What a board looks like comes as {@link #PLANES} planes of one bit per
+ * cell, packed into longs, and optionally the same as floats of 0 and 1.
+ * The planes are brought up to date from what changed in the step rather
+ * than redrawn from the grid, so a step costs the same on any size of
+ * board. Once every board has been through its first restart nothing is
+ * allocated.
+ *
+ * A batch is for one thread; to use more cores give each its own batch.
+ * Run it to see steps per second on one thread and across several.
+ */
+public class BatchEnv {
+    /** Cells holding any of the snake, head included. */
+    public static final int BODY = 0;
+    public static final int HEAD = 1;
+    public static final int OBSTACLE = 2;
+    public static final int FOOD = 3;
+    /** Cells a red dot overlaps. */
+    public static final int RED_DOT = 4;
+    public static final int PLANES = 5;
+
+    public static final float REWARD_FOOD = 1;
+    public static final float REWARD_DEATH = -1;
+
+    private static final long TICK_MILLIS = 100;
+
+    private final int envs, cols, rows, cells, words, level, maxTicks;
+    private final GameEngine[] engines;
+    private final long[] seeds;
+
+    private final long[] bits;
+    private final float[] floats;
+    private final float[] rewards;
+    private final boolean[] done, truncated;
+    private final int[] episodeScore;
+    private final long[] episodeTicks;
+    private long episodes;
+
+    /**
+     * {@code envs} boards of {@code cols} by {@code rows} on
+     * {@code level}, the first seeded {@code seed}, the next
+     * {@code seed + 1} and so on; each restart moves a board on by
+     * {@code envs} seeds so no two games are the same. A game still going
+     * after {@code maxTicks} is cut short, 0 for never. The float planes
+     * are only kept if {@code withFloats}.
+     */
+    public BatchEnv(int envs, int cols, int rows, int level, long seed, int maxTicks, boolean withFloats) {
+        if (envs < 1) {
+            throw new IllegalArgumentException("Need at least one board: " + envs);
+        }
+        this.envs = envs;
+        this.cols = cols;
+        this.rows = rows;
+        this.cells = cols * rows;
+        this.words = (cells + 63) >>> 6;
+        this.level = level;
+        this.maxTicks = maxTicks;
+        engines = new GameEngine[envs];
+        seeds = new long[envs];
+        bits = new long[envs * PLANES * words];
+        floats = withFloats ? new float[envs * PLANES * cells] : null;
+        rewards = new float[envs];
+        done = new boolean[envs];
+        truncated = new boolean[envs];
+        episodeScore = new int[envs];
+        episodeTicks = new long[envs];
+        for (int env = 0; env < envs; env++) {
+            engines[env] = new GameEngine(cols, rows, new GameRandom(), TICK_MILLIS);
+            seeds[env] = seed + env;
+        }
+        reset();
+    }
+
+    /** Starts every board on a fresh game. */
+    public void reset() {
+        for (int env = 0; env < envs; env++) {
+            restart(env);
+            rewards[env] = 0;
+            done[env] = truncated[env] = false;
+        }
+    }
+
+    /**
+     * Turns each board's snake the way {@code actions} says, one of the
+     * {@link GameEngine} directions or {@link GameEngine#NONE} to keep
+     * going, and steps every board once. Boards whose game ended are
+     * restarted, with {@link #getEpisodeScore} and
+     * {@link #getEpisodeTicks} saying how the game went.
+     */
+    public void step(int[] actions) {
+        if (actions.length != envs) {
+            throw new IllegalArgumentException("Expected " + envs + " actions, got " + actions.length);
+        }
+        for (int env = 0; env < envs; env++) {
+            GameEngine engine = engines[env];
+            OccupancyGrid grid = engine.getGrid();
+            int head = grid.index(engine.getHeadX(), engine.getHeadY());
+            int length = engine.getLength();
+            int tail = grid.index(engine.getSegmentX(length - 1), engine.getSegmentY(length - 1));
+            int food = foodCell(engine);
+            // the dots all move, so their cells are cleared now and marked again after
+            markRedDots(env, engine, false);
+
+            GameEngine.Outcome outcome = engine.step(actions[env]);
+            boolean died = outcome.isDeath();
+            boolean cut = !died && maxTicks > 0 && engine.getTick() >= maxTicks;
+            rewards[env] = died ? REWARD_DEATH : outcome == GameEngine.Outcome.ATE ? REWARD_FOOD : 0;
+            done[env] = died || cut;
+            truncated[env] = cut;
+            if (died || cut) {
+                episodeScore[env] = engine.getScore();
+                episodeTicks[env] = engine.getTick();
+                episodes++;
+                restart(env);
+                continue;
+            }
+
+            if (engine.getLength() == length) {
+                // the tail moved on, and it goes before the head arrives in case that is where it went
+                mark(env, BODY, tail, false);
+            }
+            int newHead = grid.index(engine.getHeadX(), engine.getHeadY());
+            mark(env, HEAD, head, false);
+            mark(env, HEAD, newHead, true);
+            mark(env, BODY, newHead, true);
+            int newFood = foodCell(engine);
+            if (newFood != food) {
+                if (food >= 0) {
+                    mark(env, FOOD, food, false);
+                }
+                if (newFood >= 0) {
+                    mark(env, FOOD, newFood, true);
+                }
+            }
+            markRedDots(env, engine, true);
+        }
+    }
+
+    private int foodCell(GameEngine engine) {
+        return engine.getFoodX() >= 0 ? engine.getGrid().index(engine.getFoodX(), engine.getFoodY()) : -1;
+    }
+
+    /** Starts board {@code env} on its next seed and draws its planes from scratch. */
+    private void restart(int env) {
+        GameEngine engine = engines[env];
+        engine.restart(seeds[env], level);
+        seeds[env] += envs;
+
+        Arrays.fill(bits, env * PLANES * words, (env + 1) * PLANES * words, 0);
+        if (floats != null) {
+            Arrays.fill(floats, env * PLANES * cells, (env + 1) * PLANES * cells, 0);
+        }
+        OccupancyGrid grid = engine.getGrid();
+        for (int cell = 0; cell < cells; cell++) {
+            byte flags = grid.get(cell);
+            if ((flags & OccupancyGrid.BODY) != 0) {
+                mark(env, BODY, cell, true);
+            }
+            if ((flags & OccupancyGrid.OBSTACLE) != 0) {
+                mark(env, OBSTACLE, cell, true);
+            }
+            if ((flags & OccupancyGrid.FOOD) != 0) {
+                mark(env, FOOD, cell, true);
+            }
+        }
+        mark(env, HEAD, grid.index(engine.getHeadX(), engine.getHeadY()), true);
+        markRedDots(env, engine, true);
+    }
+
+    private void markRedDots(int env, GameEngine engine, boolean on) {
+        Entities redDots = engine.getRedDots();
+        for (int i = 0; i < redDots.count(); i++) {
+            markRedDot(env, redDots.getX(i), redDots.getY(i), on);
+        }
+    }
+
+    /** Sets or clears the cells a red dot at pixel ({@code px}, {@code py}) overlaps. */
+    private void markRedDot(int env, int px, int py, boolean on) {
+        int x0 = Math.max(0, Math.floorDiv(px, GameEngine.CELL));
+        int y0 = Math.max(0, Math.floorDiv(py, GameEngine.CELL));
+        int x1 = Math.min(cols - 1, Math.floorDiv(px + GameEngine.CELL - 1, GameEngine.CELL));
+        int y1 = Math.min(rows - 1, Math.floorDiv(py + GameEngine.CELL - 1, GameEngine.CELL));
+        for (int y = y0; y <= y1; y++) {
+            for (int x = x0; x <= x1; x++) {
+                mark(env, RED_DOT, y * cols + x, on);
+            }
+        }
+    }
+
+    private void mark(int env, int plane, int cell, boolean on) {
+        int word = (env * PLANES + plane) * words + (cell >>> 6);
+        if (on) {
+            bits[word] |= 1L << cell;
+        } else {
+            bits[word] &= ~(1L << cell);
+        }
+        if (floats != null) {
+            floats[(env * PLANES + plane) * cells + cell] = on ? 1 : 0;
+        }
+    }
+
+    public int getEnvs() {
+        return envs;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    /** Longs in one plane of {@link #getBits}. */
+    public int getWords() {
+        return words;
+    }
+
+    /**
+     * Every board's planes, board by board and plane by plane:
+     * cell {@code y * cols + x} of plane {@code p} on board {@code env} is
+     * bit {@code cell % 64} of long
+     * {@code (env * PLANES + p) * getWords() + cell / 64}. The same array
+     * is updated by each step.
+     */
+    public long[] getBits() {
+        return bits;
+    }
+
+    /**
+     * The planes as floats, cell {@code cell} of plane {@code p} on board
+     * {@code env} at {@code (env * PLANES + p) * cols * rows + cell}, or
+     * null if the batch was made without them.
+     */
+    public float[] getFloats() {
+        return floats;
+    }
+
+    /** What each board earned in the last step. */
+    public float[] getRewards() {
+        return rewards;
+    }
+
+    /** Which boards' games ended in the last step; those boards are already on a new game. */
+    public boolean[] getDone() {
+        return done;
+    }
+
+    /** Which of the ended games ran out of ticks rather than dying. */
+    public boolean[] getTruncated() {
+        return truncated;
+    }
+
+    /** Score of the last game to end on board {@code env}. */
+    public int getEpisodeScore(int env) {
+        return episodeScore[env];
+    }
+
+    public long getEpisodeTicks(int env) {
+        return episodeTicks[env];
+    }
+
+    /** Games ended so far over all boards. */
+    public long getEpisodes() {
+        return episodes;
+    }
+
+    /** The game on board {@code env}, to look at; stepping it directly puts the planes out of date. */
+    public GameEngine getEngine(int env) {
+        return engines[env];
+    }
+
+    /**
+     * Steps batches with a random policy that mostly goes straight, first
+     * on one thread, then on {@code threads} threads with a batch each.
+     * {@code java Example.BatchEnv [boards] [threads] [seconds] [cols] [rows]}
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int boards = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        double seconds = args.length > 2 ? Double.parseDouble(args[2]) : 3;
+        int cols = args.length > 3 ? Integer.parseInt(args[3]) : 40;
+        int rows = args.length > 4 ? Integer.parseInt(args[4]) : 30;
+
+        for (int t : new int[]{1, threads}) {
+            long[] steps = new long[t];
+            long[] episodes = new long[t];
+            Thread[] workers = new Thread[t];
+            long nanos = (long) (seconds * 1e9);
+            for (int i = 0; i < t; i++) {
+                int worker = i;
+                workers[i] = new Thread(() -> {
+                    BatchEnv batch = new BatchEnv(boards, cols, rows, 1, worker * (long) boards, 10_000, false);
+                    int[] actions = new int[boards];
+                    long state = worker * 0x9E3779B97F4A7C15L + 1;
+                    long start = System.nanoTime();
+                    while (System.nanoTime() - start < nanos) {
+                        for (int b = 0; b < boards; b++) {
+                            state ^= state << 13;
+                            state ^= state >>> 7;
+                            state ^= state << 17;
+                            // one step in eight turns somewhere at random
+                            actions[b] = (state & 7) == 0 ? (int) (state >>> 3 & 3) : GameEngine.NONE;
+                        }
+                        batch.step(actions);
+                        steps[worker] += boards;
+                    }
+                    episodes[worker] = batch.getEpisodes();
+                });
+                workers[i].start();
+            }
+            long totalSteps = 0, totalEpisodes = 0;
+            for (int i = 0; i < t; i++) {
+                workers[i].join();
+                totalSteps += steps[i];
+                totalEpisodes += episodes[i];
+            }
+            System.out.printf("%d x %d boards of %dx%d: %.0f steps/s, %.0f per thread, %d games%n",
+                    t, boards, cols, rows, totalSteps / seconds, totalSteps / seconds / t, totalEpisodes);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package Example;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
+
+/**
+ * Draws a {@link GameEngine} board in play: the static layer, the snake,
+ * the food, the score, the red dots and any hunters. It only needs a {@link Graphics},
+ * so {@link Play} uses it for the panel and the benchmarks use it to draw
+ * into an offscreen image.
+ */
+public class BoardRenderer {
+    private static final Font SCORE_FONT = new Font(Font.SANS_SERIF, Font.BOLD, 30);
+    private static final Rectangle SCORE_AREA = new Rectangle(15, 5, 300, 45);
+
+    private final SpriteAtlas atlas;
+    private final StaticLayer staticLayer;
+    private final Rectangle clip = new Rectangle();
+    private int paintedScore = -1;
+    private int scoreShown = -1;
+    private String scoreText;
+
+    public BoardRenderer(SpriteAtlas atlas) {
+        this.atlas = atlas;
+        this.staticLayer = new StaticLayer(atlas);
+    }
+
+    /**
+     * Draws a frame {@code alpha} of the way from the engine's last tick to
+     * the next. Sprites outside the graphics' clip are skipped.
+     */
+    public void draw(Graphics g, GraphicsConfiguration config, GameEngine engine, int brick,
+                     int width, int height, double alpha) {
+        staticLayer.draw(g, config, width, height, engine, brick);
+        if (g.getClip() == null) {
+            clip.setBounds(0, 0, width, height);
+        } else {
+            g.getClipBounds(clip);
+        }
+        drawSnake(g, engine, alpha);
+        drawClipped(g, SpriteAtlas.FOOD + engine.getFoodKind(),
+                engine.getFoodX() * GameEngine.CELL, engine.getFoodY() * GameEngine.CELL);
+        if (clip.intersects(SCORE_AREA)) {
+            g.setFont(SCORE_FONT);
+            g.setColor(Color.MAGENTA);
+            if (engine.getScore() != scoreShown) {
+                scoreShown = engine.getScore();
+                scoreText = "Score: " + scoreShown;
+            }
+            g.drawString(scoreText, 20, 40);
+        }
+        drawEntities(g, engine.getRedDots(), alpha);
+        drawHunters(g, engine, alpha);
+    }
+
+    private void drawSnake(Graphics g, GameEngine engine, double alpha) {
+        if (engine.getTick() == 0) {
+            alpha = 1;
+        }
+        int x = engine.getHeadX(), y = engine.getHeadY();
+        drawClipped(g, SpriteAtlas.SNAKE_HEAD + engine.getDirection(),
+                between(engine.getPreviousSegmentX(0), x, alpha), between(engine.getPreviousSegmentY(0), y, alpha));
+        for (int i = 1; i < engine.getLength(); i++) {
+            int nextX = x, nextY = y;
+            x = engine.getSegmentX(i);
+            y = engine.getSegmentY(i);
+            drawClipped(g, SpriteAtlas.SNAKE_BODY + GameEngine.directionBetween(x, y, nextX, nextY),
+                    between(engine.getPreviousSegmentX(i), x, alpha), between(engine.getPreviousSegmentY(i), y, alpha));
+        }
+    }
+
+    /** Draws each entity with its sprite, or the one for its kind, in one pass over the store. */
+    private void drawEntities(Graphics g, Entities entities, double alpha) {
+        for (int i = 0; i < entities.count(); i++) {
+            int fromX = entities.getPreviousX(i), fromY = entities.getPreviousY(i);
+            int x = (int) Math.round(fromX + (entities.getX(i) - fromX) * alpha);
+            int y = (int) Math.round(fromY + (entities.getY(i) - fromY) * alpha);
+            int sprite = entities.getSprite(i);
+            if (sprite == Entities.KIND_SPRITE && entities.getKind(i) == Entities.RED_DOT) {
+                sprite = SpriteAtlas.RED_DOT;
+            }
+            if (sprite >= 0) {
+                drawClipped(g, sprite, x, y);
+            }
+        }
+    }
+
+    /** Hunters only slide between cells in the ticks they move. */
+    private void drawHunters(Graphics g, GameEngine engine, double alpha) {
+        Hunters hunters = engine.getHunters();
+        if (hunters == null) {
+            return;
+        }
+        boolean moving = hunters.getMovedAt() == engine.getTick();
+        int cols = engine.getCols();
+        for (int i = 0; i < hunters.count(); i++) {
+            int cell = hunters.getCell(i);
+            int from = moving ? hunters.getPreviousCell(i) : cell;
+            drawClipped(g, SpriteAtlas.HUNTER,
+                    between(from % cols, cell % cols, alpha), between(from / cols, cell / cols, alpha));
+        }
+    }
+
+    /** Skips sprites that lie wholly outside the area being repainted. */
+    private void drawClipped(Graphics g, int sprite, int x, int y) {
+        if (clip.intersects(x, y, spriteWidth(sprite), spriteHeight(sprite))) {
+            atlas.draw(g, sprite, x, y);
+        }
+    }
+
+    private int spriteWidth(int sprite) {
+        return Math.max(GameEngine.CELL, atlas.width(sprite));
+    }
+
+    private int spriteHeight(int sprite) {
+        return Math.max(GameEngine.CELL, atlas.height(sprite));
+    }
+
+    private void markSprite(DirtyRegions dirty, int sprite, int cellX, int cellY) {
+        dirty.add(cellX * GameEngine.CELL, cellY * GameEngine.CELL, spriteWidth(sprite), spriteHeight(sprite));
+    }
+
+    /**
+     * Marks where the parts that can change in a tick are drawn. Call it
+     * before and after the tick so both the old and new spots get painted.
+     * Bricks and the background are in the static layer and never change
+     * during a game.
+     */
+    public void markMovingParts(GameEngine engine, DirtyRegions dirty) {
+        int last = engine.getLength() - 1;
+        markSprite(dirty, SpriteAtlas.SNAKE_HEAD, engine.getHeadX(), engine.getHeadY());
+        markSprite(dirty, SpriteAtlas.SNAKE_BODY, engine.getSegmentX(last), engine.getSegmentY(last));
+        markSprite(dirty, SpriteAtlas.FOOD + engine.getFoodKind(), engine.getFoodX(), engine.getFoodY());
+        Entities redDots = engine.getRedDots();
+        for (int i = 0; i < redDots.count(); i++) {
+            dirty.add(redDots.getX(i), redDots.getY(i), GameEngine.CELL, GameEngine.CELL);
+        }
+        Hunters hunters = engine.getHunters();
+        if (hunters != null) {
+            for (int i = 0; i < hunters.count(); i++) {
+                int cell = hunters.getCell(i);
+                dirty.add(cell % engine.getCols() * GameEngine.CELL, cell / engine.getCols() * GameEngine.CELL,
+                        GameEngine.CELL, GameEngine.CELL);
+            }
+        }
+        if (engine.getScore() != paintedScore) {
+            paintedScore = engine.getScore();
+            dirty.add(SCORE_AREA.x, SCORE_AREA.y, SCORE_AREA.width, SCORE_AREA.height);
+        }
+    }
+
+    /** Makes the next {@link #markMovingParts} include the score. */
+    public void forgetScore() {
+        paintedScore = -1;
+    }
+
+    /** Pixel position {@code alpha} of the way from one cell to another. */
+    private static int between(int fromCell, int toCell, double alpha) {
+        return (int) Math.round((fromCell + (toCell - fromCell) * alpha) * GameEngine.CELL);
+    }
+}
@@ -0,0 +1,67 @@
+package Example;
+
+/**
+ * The part of a {@link ChunkedWorld} that fits on screen, in pixels. It
+ * keeps the point it follows in the middle of the view, except near the
+ * world's edges where it stops so nothing past the edge is shown.
+ */
+public class Camera {
+    private int x, y;
+    private int width, height;
+
+    /**
+     * Centres a {@code width} by {@code height} view on pixel
+     * ({@code centerX}, {@code centerY}) of a world {@code worldWidth} by
+     * {@code worldHeight} pixels.
+     */
+    public void follow(int centerX, int centerY, int width, int height, int worldWidth, int worldHeight) {
+        this.width = width;
+        this.height = height;
+        x = clamp(centerX - width / 2, worldWidth - width);
+        y = clamp(centerY - height / 2, worldHeight - height);
+    }
+
+    private static int clamp(int value, int max) {
+        // a world smaller than the view sits at the top left
+        return Math.max(0, Math.min(value, max));
+    }
+
+    /** Left edge of the view in world pixels. */
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int firstCol() {
+        return x / GameEngine.CELL;
+    }
+
+    public int firstRow() {
+        return y / GameEngine.CELL;
+    }
+
+    /** Last column any of which is in view. */
+    public int lastCol() {
+        return (x + width - 1) / GameEngine.CELL;
+    }
+
+    public int lastRow() {
+        return (y + height - 1) / GameEngine.CELL;
+    }
+
+    /** Whether any of a {@code w} by {@code h} sprite at world pixel ({@code px}, {@code py}) is in view. */
+    public boolean sees(int px, int py, int w, int h) {
+        return px < x + width && x < px + w && py < y + height && y < py + h;
+    }
+}
@@ -0,0 +1,277 @@
+package Example;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A board far bigger than the screen, split into square chunks of
+ * {@link #CHUNK} cells that only exist while they are needed. A chunk is
+ * laid out by {@link LevelGenerator} the first time anything looks at it,
+ * from a seed made out of the world's seed and the chunk's position, so a
+ * chunk that was thrown away comes back exactly the same. {@link #evict}
+ * drops chunks far from a point, except those with snake or food on them,
+ * so memory depends on how much is around the player and not on the size
+ * of the world.
+ *
+ * Each chunk keeps its outer ring of cells free of bricks and is connected
+ * inside, so the whole world is connected however the chunks meet.
+ *
+ * Coordinates are in cells; {@link SnakeBody} packing limits a side to
+ * 32767 cells.
+ */
+public class ChunkedWorld {
+    public static final int CHUNK = 64;
+    public static final int MAX_SIDE = Short.MAX_VALUE;
+    private static final int SPARE_CHUNKS = 16;
+
+    /** One chunk's cells, and its bricks as indices into them. */
+    public static class Chunk {
+        int chunkX, chunkY;
+        final OccupancyGrid grid = new OccupancyGrid(CHUNK, CHUNK);
+        int[] bricks = new int[0];
+        int brickCount;
+        // cells holding snake or food, which must not be thrown away
+        int pinned;
+
+        public int getChunkX() {
+            return chunkX;
+        }
+
+        public int getChunkY() {
+            return chunkY;
+        }
+
+        public int getBrickCount() {
+            return brickCount;
+        }
+
+        /** World cell of brick {@code i}. */
+        public int getBrickX(int i) {
+            return chunkX * CHUNK + bricks[i] % CHUNK;
+        }
+
+        public int getBrickY(int i) {
+            return chunkY * CHUNK + bricks[i] / CHUNK;
+        }
+    }
+
+    private final int cols, rows;
+    private final int chunkCols, chunkRows;
+    private final long seed;
+    private final int startX, startY;
+    private final LevelGenerator generator = new LevelGenerator();
+    private final Random chunkRandom = new Random();
+    private final Map<Long, Chunk> chunks = new HashMap<>();
+    private final List<Chunk> evicted = new ArrayList<>();
+    // chunks thrown away, kept to be laid out again instead of allocating new ones
+    private final List<Chunk> spare = new ArrayList<>();
+    private LevelGenerator.Spec spec;
+    // the chunk last asked for, since lookups come in runs on the same chunk
+    private Chunk last;
+    private long generated;
+
+    public ChunkedWorld(int cols, int rows, long seed, int level) {
+        if (cols < 1 || rows < 1 || cols > MAX_SIDE || rows > MAX_SIDE) {
+            throw new IllegalArgumentException("World must be 1 to " + MAX_SIDE + " cells a side: " + cols + "x" + rows);
+        }
+        this.cols = cols;
+        this.rows = rows;
+        this.chunkCols = (cols + CHUNK - 1) / CHUNK;
+        this.chunkRows = (rows + CHUNK - 1) / CHUNK;
+        this.seed = seed;
+        this.startX = cols / 2;
+        this.startY = rows / 2;
+        this.spec = LevelGenerator.forLevel(level);
+    }
+
+    /** Lays the world out again as {@code level}; every chunk is regenerated when next needed. */
+    public void setLevel(int level) {
+        spec = LevelGenerator.forLevel(level);
+        chunks.clear();
+        spare.clear();
+        last = null;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    /** Where a snake can start, kept clear of bricks. */
+    public int getStartX() {
+        return startX;
+    }
+
+    public int getStartY() {
+        return startY;
+    }
+
+    public boolean inside(int x, int y) {
+        return x >= 0 && y >= 0 && x < cols && y < rows;
+    }
+
+    public byte get(int x, int y) {
+        return chunkAt(x, y).grid.get(x & (CHUNK - 1), y & (CHUNK - 1));
+    }
+
+    /** Sets {@code flag} on a cell; {@link OccupancyGrid#BODY} and {@link OccupancyGrid#FOOD} pin its chunk. */
+    public void set(int x, int y, int flag) {
+        Chunk chunk = chunkAt(x, y);
+        chunk.grid.set(x & (CHUNK - 1), y & (CHUNK - 1), flag);
+        chunk.pinned++;
+    }
+
+    public void clear(int x, int y, int flag) {
+        Chunk chunk = chunkAt(x, y);
+        chunk.grid.clear(x & (CHUNK - 1), y & (CHUNK - 1), flag);
+        chunk.pinned--;
+    }
+
+    /**
+     * A random empty cell in the chunk holding ({@code x}, {@code y}),
+     * packed as in {@link SnakeBody}, or -1 if it has none. Only the
+     * chunk's inside is used, so the cell is never on a chunk edge.
+     */
+    public int randomEmptyCell(int x, int y, Random random) {
+        Chunk chunk = chunkAt(x, y);
+        FreeCellSet free = chunk.grid.getFreeCells();
+        for (int tries = 0; tries < 16 && free.size() > 0; tries++) {
+            int cell = free.get(random.nextInt(free.size()));
+            int lx = cell % CHUNK, ly = cell / CHUNK;
+            if (lx == 0 || ly == 0 || lx == CHUNK - 1 || ly == CHUNK - 1) {
+                continue;
+            }
+            int cx = chunk.chunkX * CHUNK + lx, cy = chunk.chunkY * CHUNK + ly;
+            if (inside(cx, cy)) {
+                return SnakeBody.pack(cx, cy);
+            }
+        }
+        return -1;
+    }
+
+    /** The chunk holding a cell, generating it if it is not loaded. */
+    public Chunk chunkAt(int x, int y) {
+        return chunk(x / CHUNK, y / CHUNK);
+    }
+
+    public Chunk chunk(int chunkX, int chunkY) {
+        Chunk chunk = last;
+        if (chunk != null && chunk.chunkX == chunkX && chunk.chunkY == chunkY) {
+            return chunk;
+        }
+        long key = (long) chunkX << 32 | chunkY;
+        chunk = chunks.get(key);
+        if (chunk == null) {
+            chunk = generate(chunkX, chunkY);
+            chunks.put(key, chunk);
+        }
+        last = chunk;
+        return chunk;
+    }
+
+    /**
+     * Calls {@code visitor} with each chunk that overlaps the given cells,
+     * generating any that are not loaded.
+     */
+    public void forEachChunk(int firstCol, int firstRow, int lastCol, int lastRow, ChunkVisitor visitor) {
+        int fromX = Math.max(firstCol, 0) / CHUNK, toX = Math.min(lastCol, cols - 1) / CHUNK;
+        int fromY = Math.max(firstRow, 0) / CHUNK, toY = Math.min(lastRow, rows - 1) / CHUNK;
+        for (int chunkY = fromY; chunkY <= toY; chunkY++) {
+            for (int chunkX = fromX; chunkX <= toX; chunkX++) {
+                visitor.visit(chunk(chunkX, chunkY));
+            }
+        }
+    }
+
+    public interface ChunkVisitor {
+        void visit(Chunk chunk);
+    }
+
+    /**
+     * Drops every loaded chunk more than {@code keep} chunks from the one
+     * holding ({@code x}, {@code y}), unless snake or food is on it.
+     * Returns how many were dropped.
+     */
+    public int evict(int x, int y, int keep) {
+        int centerX = x / CHUNK, centerY = y / CHUNK;
+        evicted.clear();
+        for (Chunk chunk : chunks.values()) {
+            if (chunk.pinned == 0 && (Math.abs(chunk.chunkX - centerX) > keep
+                    || Math.abs(chunk.chunkY - centerY) > keep)) {
+                evicted.add(chunk);
+            }
+        }
+        for (Chunk chunk : evicted) {
+            chunks.remove((long) chunk.chunkX << 32 | chunk.chunkY);
+            if (spare.size() < SPARE_CHUNKS) {
+                spare.add(chunk);
+            }
+        }
+        if (!evicted.isEmpty()) {
+            last = null;
+        }
+        return evicted.size();
+    }
+
+    /** Chunks in memory right now. */
+    public int getLoadedChunks() {
+        return chunks.size();
+    }
+
+    /** Chunks generated since the world was made, counting ones made again after eviction. */
+    public long getGeneratedChunks() {
+        return generated;
+    }
+
+    public int getChunkCols() {
+        return chunkCols;
+    }
+
+    public int getChunkRows() {
+        return chunkRows;
+    }
+
+    private Chunk generate(int chunkX, int chunkY) {
+        generated++;
+        Chunk chunk = spare.isEmpty() ? new Chunk() : spare.remove(spare.size() - 1);
+        chunk.chunkX = chunkX;
+        chunk.chunkY = chunkY;
+        chunk.pinned = 0;
+        OccupancyGrid grid = chunk.grid;
+        grid.clearAll();
+        int originX = chunkX * CHUNK, originY = chunkY * CHUNK;
+        // cells past the world's edge are walls to the generator, and the
+        // chunk's own edge is held for the moment so no brick lands there
+        for (int y = 0; y < CHUNK; y++) {
+            for (int x = 0; x < CHUNK; x++) {
+                if (!inside(originX + x, originY + y)) {
+                    grid.set(x, y, OccupancyGrid.OBSTACLE);
+                } else if (x == 0 || y == 0 || x == CHUNK - 1 || y == CHUNK - 1) {
+                    grid.set(x, y, OccupancyGrid.FOOD);
+                }
+            }
+        }
+        chunkRandom.setSeed(seed ^ ((long) chunkX * 0x9E3779B97F4A7C15L + chunkY) * 0xC2B2AE3D27D4EB4FL);
+        int count = generator.generate(grid, chunkRandom, spec,
+                startX - originX, startY - originY, GameEngine.RIGHT);
+        if (chunk.bricks.length < count) {
+            chunk.bricks = new int[count];
+        }
+        System.arraycopy(generator.getPlaced(), 0, chunk.bricks, 0, count);
+        chunk.brickCount = count;
+        for (int y = 0; y < CHUNK; y++) {
+            for (int x = 0; x < CHUNK; x++) {
+                if ((x == 0 || y == 0 || x == CHUNK - 1 || y == CHUNK - 1) && inside(originX + x, originY + y)) {
+                    grid.clear(x, y, OccupancyGrid.FOOD);
+                }
+            }
+        }
+        return chunk;
+    }
+}
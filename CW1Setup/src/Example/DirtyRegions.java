@@ -0,0 +1,88 @@
+package Example;
+
+import javax.swing.JComponent;
+
+/**
+ * The parts of a component that changed since the last paint, kept as a
+ * handful of rectangles. Rectangles that touch are merged as they come in.
+ * Swing's own repaint manager would union everything into one bounding box,
+ * so a head at one end of the board and a tail at the other would repaint
+ * the whole lot; {@link #paint} paints each region on its own instead.
+ */
+public class DirtyRegions {
+    private static final int MAX_REGIONS = 16;
+
+    private final int[] x = new int[MAX_REGIONS];
+    private final int[] y = new int[MAX_REGIONS];
+    private final int[] right = new int[MAX_REGIONS];
+    private final int[] bottom = new int[MAX_REGIONS];
+    private int count;
+    private boolean everything;
+
+    public void add(int rx, int ry, int width, int height) {
+        if (everything || width <= 0 || height <= 0) {
+            return;
+        }
+        int rr = rx + width, rb = ry + height;
+        for (int i = 0; i < count; i++) {
+            if (rx <= right[i] && x[i] <= rr && ry <= bottom[i] && y[i] <= rb) {
+                // grow the one it touches, then remove it and add it again so
+                // it can swallow anything the bigger rectangle now reaches
+                rx = Math.min(rx, x[i]);
+                ry = Math.min(ry, y[i]);
+                rr = Math.max(rr, right[i]);
+                rb = Math.max(rb, bottom[i]);
+                remove(i);
+                add(rx, ry, rr - rx, rb - ry);
+                return;
+            }
+        }
+        if (count == MAX_REGIONS) {
+            everything = true;
+            return;
+        }
+        x[count] = rx;
+        y[count] = ry;
+        right[count] = rr;
+        bottom[count] = rb;
+        count++;
+    }
+
+    private void remove(int i) {
+        count--;
+        x[i] = x[count];
+        y[i] = y[count];
+        right[i] = right[count];
+        bottom[i] = bottom[count];
+    }
+
+    /** Marks the whole component as changed. */
+    public void addAll() {
+        everything = true;
+    }
+
+    public int size() {
+        return everything ? 1 : count;
+    }
+
+    public boolean isEmpty() {
+        return !everything && count == 0;
+    }
+
+    public void clear() {
+        count = 0;
+        everything = false;
+    }
+
+    /** Paints every region right away and clears the list. Call on the EDT. */
+    public void paint(JComponent component) {
+        if (everything) {
+            component.paintImmediately(0, 0, component.getWidth(), component.getHeight());
+        } else {
+            for (int i = 0; i < count; i++) {
+                component.paintImmediately(x[i], y[i], right[i] - x[i], bottom[i] - y[i]);
+            }
+        }
+        clear();
+    }
+}
@@ -0,0 +1,166 @@
+package Example;
+
+import java.util.Arrays;
+
+/**
+ * Things that drift about the board in pixels, such as red dots, kept as
+ * one primitive array per field rather than an object each. A tick moves
+ * them all in one pass over the arrays and a frame draws them all in
+ * another, so hundreds cost no more garbage than one.
+ *
+ * An entity is only an index, and removing one moves the last into its
+ * place, so indices are only good until the next removal.
+ */
+public class Entities {
+    /** The kind of a red dot; other kinds are up to whoever adds them. */
+    public static final int RED_DOT = 0;
+    /** Sprite of an entity the renderer picks a picture for by its kind. */
+    public static final int KIND_SPRITE = -1;
+
+    private int[] kind = new int[16];
+    private int[] sprite = new int[16];
+    private int[] x = new int[16], y = new int[16];
+    private int[] previousX = new int[16], previousY = new int[16];
+    private int[] dx = new int[16], dy = new int[16];
+    private long[] expiresAt = new long[16];
+    private int count;
+
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Adds an entity at pixel ({@code x}, {@code y}) moving ({@code dx},
+     * {@code dy}) a tick, gone once the time is past {@code expiresAt}.
+     * Returns its index.
+     */
+    public int add(int kind, int sprite, int x, int y, int dx, int dy, long expiresAt) {
+        if (count == this.x.length) {
+            grow();
+        }
+        int i = count++;
+        this.kind[i] = kind;
+        this.sprite[i] = sprite;
+        this.x[i] = previousX[i] = x;
+        this.y[i] = previousY[i] = y;
+        this.dx[i] = dx;
+        this.dy[i] = dy;
+        this.expiresAt[i] = expiresAt;
+        return i;
+    }
+
+    private void grow() {
+        int capacity = count * 2;
+        kind = Arrays.copyOf(kind, capacity);
+        sprite = Arrays.copyOf(sprite, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        dx = Arrays.copyOf(dx, capacity);
+        dy = Arrays.copyOf(dy, capacity);
+        expiresAt = Arrays.copyOf(expiresAt, capacity);
+    }
+
+    /** Removes entity {@code i}, moving the last one into its place. */
+    public void remove(int i) {
+        int last = --count;
+        kind[i] = kind[last];
+        sprite[i] = sprite[last];
+        x[i] = x[last];
+        y[i] = y[last];
+        previousX[i] = previousX[last];
+        previousY[i] = previousY[last];
+        dx[i] = dx[last];
+        dy[i] = dy[last];
+        expiresAt[i] = expiresAt[last];
+    }
+
+    /**
+     * Moves every entity on a tick, turning back any that went past 0 or
+     * {@code maxX}, {@code maxY}. Those turned back still finish the move
+     * they were making, as the red dot always has.
+     */
+    public void update(int maxX, int maxY) {
+        for (int i = 0; i < count; i++) {
+            previousX[i] = x[i];
+            previousY[i] = y[i];
+            x[i] += dx[i];
+            y[i] += dy[i];
+            if (x[i] < 0 || x[i] > maxX) {
+                dx[i] = -dx[i];
+            }
+            if (y[i] < 0 || y[i] > maxY) {
+                dy[i] = -dy[i];
+            }
+        }
+    }
+
+    /** Removes every entity whose time is up by {@code now}. */
+    public void expire(long now) {
+        for (int i = count - 1; i >= 0; i--) {
+            if (now > expiresAt[i]) {
+                remove(i);
+            }
+        }
+    }
+
+    /** The first entity overlapping the {@code size} square at pixel ({@code px}, {@code py}), or -1. */
+    public int hit(int px, int py, int size) {
+        for (int i = 0; i < count; i++) {
+            if (x[i] < px + size && px < x[i] + size && y[i] < py + size && py < y[i] + size) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public int getKind(int i) {
+        return kind[i];
+    }
+
+    /** {@link SpriteAtlas} id to draw entity {@code i} with, or {@link #KIND_SPRITE}. */
+    public int getSprite(int i) {
+        return sprite[i];
+    }
+
+    /** Position in pixels. */
+    public int getX(int i) {
+        return x[i];
+    }
+
+    public int getY(int i) {
+        return y[i];
+    }
+
+    /** Where entity {@code i} was before the last {@link #update}. */
+    public int getPreviousX(int i) {
+        return previousX[i];
+    }
+
+    public int getPreviousY(int i) {
+        return previousY[i];
+    }
+
+    public void setPrevious(int i, int px, int py) {
+        previousX[i] = px;
+        previousY[i] = py;
+    }
+
+    /** Pixels moved each tick. */
+    public int getDx(int i) {
+        return dx[i];
+    }
+
+    public int getDy(int i) {
+        return dy[i];
+    }
+
+    public long getExpiresAt(int i) {
+        return expiresAt[i];
+    }
+}
@@ -0,0 +1,120 @@
+package Example;
+
+import java.util.Arrays;
+
+/**
+ * How many steps each cell is from one target cell, by breadth first
+ * search over the grid, so that anything anywhere can head for the target
+ * by stepping to a neighbour one closer. One search serves every chaser,
+ * however many there are.
+ *
+ * The search stops as soon as the farthest of the cells it is asked about
+ * is reached, since nothing further out is needed: every cell closer than
+ * that has its distance by then, and a chaser only ever looks one closer.
+ * So chasers crowding in on the target cost less each time.
+ *
+ * Cells are marked with the number of the search rather than cleared, so
+ * a search only touches the cells it reaches.
+ */
+public class FlowField {
+    /** What {@link #distance} says about a cell the last search did not reach. */
+    public static final int UNREACHED = Integer.MAX_VALUE;
+
+    private static final int[] STEP_X = {0, 1, 0, -1};
+    private static final int[] STEP_Y = {-1, 0, 1, 0};
+
+    private final int cols, rows;
+    private final int[] distance;
+    private final int[] reached;
+    private final int[] wanted;
+    private final int[] queue;
+    private int search;
+    private int visited;
+
+    public FlowField(int cols, int rows) {
+        this.cols = cols;
+        this.rows = rows;
+        distance = new int[cols * rows];
+        reached = new int[cols * rows];
+        wanted = new int[cols * rows];
+        queue = new int[cols * rows];
+    }
+
+    /**
+     * Works out distances to {@code target}, never through cells with any
+     * of {@code blocked} set but the target itself, far enough out to
+     * cover the first {@code count} cells of {@code from}.
+     */
+    public void compute(OccupancyGrid grid, int target, int blocked, int[] from, int count) {
+        if (search == Integer.MAX_VALUE) {
+            Arrays.fill(reached, 0);
+            Arrays.fill(wanted, 0);
+            search = 0;
+        }
+        search++;
+        int left = 0;
+        for (int i = 0; i < count; i++) {
+            if (wanted[from[i]] != search) {
+                wanted[from[i]] = search;
+                left++;
+            }
+        }
+        int first = 0, last = 0;
+        queue[last++] = target;
+        reached[target] = search;
+        distance[target] = 0;
+        if (wanted[target] == search) {
+            left--;
+        }
+        while (first < last && left > 0) {
+            int cell = queue[first++];
+            int x = cell % cols, y = cell / cols, d = distance[cell] + 1;
+            for (int step = 0; step < 4; step++) {
+                int nx = x + STEP_X[step], ny = y + STEP_Y[step];
+                if (nx < 0 || ny < 0 || nx >= cols || ny >= rows) {
+                    continue;
+                }
+                int n = ny * cols + nx;
+                if (reached[n] != search && (grid.get(n) & blocked) == 0) {
+                    reached[n] = search;
+                    distance[n] = d;
+                    queue[last++] = n;
+                    if (wanted[n] == search) {
+                        left--;
+                    }
+                }
+            }
+        }
+        visited = last;
+    }
+
+    /** Steps from {@code cell} to the target, or {@link #UNREACHED}. */
+    public int distance(int cell) {
+        return reached[cell] == search ? distance[cell] : UNREACHED;
+    }
+
+    /**
+     * The neighbour of {@code cell} one step nearer the target, the first
+     * going up, right, down, left if there are several; {@code cell} itself
+     * if it is the target or was not reached.
+     */
+    public int next(int cell) {
+        int d = distance(cell);
+        if (d == 0 || d == UNREACHED) {
+            return cell;
+        }
+        int x = cell % cols, y = cell / cols;
+        for (int step = 0; step < 4; step++) {
+            int nx = x + STEP_X[step], ny = y + STEP_Y[step];
+            if (nx >= 0 && ny >= 0 && nx < cols && ny < rows && distance(ny * cols + nx) == d - 1) {
+                return ny * cols + nx;
+            }
+        }
+        return cell;
+    }
+
+    /** Cells the last search reached. */
+    public int getVisited() {
+        return visited;
+    }
+}
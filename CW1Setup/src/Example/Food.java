@@ -20,13 +20,13 @@ public class Food extends MyFrame.SnakeObject
 		this.w = i.getWidth(null);
 		this.h = i.getHeight(null);
 
-		this.x = (int) (Math.random() * (870 - w + 10));
-		this.y = (int) (Math.random() * (560 - h - 40));
+		this.x = (int) (Math.random() * (MyFrame.FRAME_WIDTH - w + 10));
+		this.y = (int) (Math.random() * (MyFrame.FRAME_HEIGHT - h - 40));
 	}
 
 	public void eaten(MyFrame.MySnake mySnake)	{
 
-		if (mySnake.getRectangle().intersects(this.getRectangle()) && l && mySnake.l)		{
+		if (l && mySnake.l && mySnake.intersects(this))		{
 			this.l = false;
 			mySnake.changeLength(mySnake.getLength() + 1);
 			mySnake.score += 521;
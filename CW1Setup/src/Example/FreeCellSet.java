@@ -0,0 +1,89 @@
+package Example;
+
+/**
+ * The empty cells of a board, kept so one can be picked uniformly at
+ * random in O(1) however full the board is. The cells sit packed at the
+ * front of {@code cells}; {@code position} says where each one is, so
+ * removing a cell moves the last one into its slot and adding puts it on
+ * the end. {@link OccupancyGrid} keeps it in step as cells fill and empty.
+ */
+public class FreeCellSet {
+    private final int[] cells;
+    private final int[] position;
+    private int size;
+
+    public FreeCellSet(int cellCount) {
+        cells = new int[cellCount];
+        position = new int[cellCount];
+        fill();
+    }
+
+    /** Marks every cell free. */
+    public void fill() {
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = i;
+            position[i] = i;
+        }
+        size = cells.length;
+    }
+
+    /**
+     * Puts the free cells back in index order, as given by {@code grid}
+     * holding {@link OccupancyGrid#EMPTY} for each free cell. Which cell
+     * {@link #get} returns depends on the order adds and removes came in;
+     * after this it depends only on what is free.
+     */
+    public void sort(byte[] grid) {
+        int n = 0;
+        for (int i = 0; i < grid.length; i++) {
+            if (grid[i] == OccupancyGrid.EMPTY) {
+                cells[n] = i;
+                position[i] = n++;
+            }
+        }
+        size = n;
+        for (int i = 0; i < grid.length; i++) {
+            if (grid[i] != OccupancyGrid.EMPTY) {
+                cells[n] = i;
+                position[i] = n++;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int cell) {
+        return position[cell] < size;
+    }
+
+    /** The {@code i}th free cell, in no particular order; pass a random i below {@link #size}. */
+    public int get(int i) {
+        return cells[i];
+    }
+
+    public void add(int cell) {
+        int at = position[cell];
+        if (at >= size) {
+            swap(at, size);
+            size++;
+        }
+    }
+
+    public void remove(int cell) {
+        int at = position[cell];
+        if (at < size) {
+            size--;
+            swap(at, size);
+        }
+    }
+
+    private void swap(int i, int j) {
+        int a = cells[i], b = cells[j];
+        cells[i] = b;
+        cells[j] = a;
+        position[b] = i;
+        position[a] = j;
+    }
+}
@@ -0,0 +1,752 @@
+package Example;
+
+import java.awt.Point;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+/**
+ * The rules of {@link Play} without any Swing in them. The board size, the
+ * random source and the clock are all handed in, so a game can be stepped
+ * as fast as the caller likes on a headless machine and {@link Play} only
+ * has to drive it with a timer and draw what it sees.
+ *
+ * Snake, food and obstacles live on a grid of {@link #CELL} pixel cells, the
+ * red dot keeps moving in pixels like it always did.
+ */
+public class GameEngine {
+    public static final int CELL = 20;
+
+    public static final int NONE = -1;
+    public static final int UP = 0;
+    public static final int RIGHT = 1;
+    public static final int DOWN = 2;
+    public static final int LEFT = 3;
+
+    public static final int FOOD_KINDS = 17;
+    /**
+     * Ticks between the points where {@link #writeState} captures enough
+     * to carry on exactly as the saved game would have.
+     */
+    public static final int KEYFRAME_TICKS = 600;
+    /** Ticks between the hunters' moves, so the snake can outrun them. */
+    public static final int HUNTER_TICKS = 2;
+
+    private static final int START_SIZE = 3;
+    private static final int NO_CELL = Integer.MIN_VALUE;
+    private static final int RED_DOT_SPEED = 2;
+    private static final long RED_DOT_LIFETIME = 10000;
+    // cells between the head and where a hunter is put down
+    private static final int HUNTER_SPAWN_DISTANCE = 10;
+
+    public enum Outcome {
+        RUNNING, ATE, HIT_WALL, HIT_SELF, HIT_OBSTACLE, HIT_RED_DOT, HIT_HUNTER;
+
+        public boolean isDeath() {
+            return this != RUNNING && this != ATE;
+        }
+    }
+
+    private final int cols, rows;
+    private final Random random;
+    private final LongSupplier clock;
+    private final long tickMillis;
+    private final OccupancyGrid grid;
+    private Profiler profiler;
+
+    private final SnakeBody body = new SnakeBody();
+    private int direction = RIGHT;
+    private int size = START_SIZE;
+    private int score = 0;
+    private long tick;
+    private int vacated = NO_CELL;
+
+    private final Point food = new Point();
+    private int foodKind;
+
+    private final LevelGenerator levelGenerator = new LevelGenerator();
+    // levels past the built in ones get a spec made for them, so keep it for the next restart
+    private LevelGenerator.Spec spec;
+    private int specLevel;
+    // bricks as grid indices, the first obstacleCount of them; kept between levels so restarting allocates nothing
+    private int[] obstacles = new int[0];
+    private int obstacleCount;
+    private int level = 1;
+    private long levelVersion;
+
+    private final Entities redDots = new Entities();
+    private int redDotWave = 1;
+    // the first red dot's heading, which the next one to appear starts off with
+    private int redDotDx = RED_DOT_SPEED, redDotDy = RED_DOT_SPEED;
+    private long lastRedDotSpawnTime;
+    private long nextRedDotSpawnDelay;
+
+    private int hunterCount;
+    private Hunters hunters;
+
+    public GameEngine(int cols, int rows, Random random, LongSupplier clock) {
+        this(cols, rows, random, clock, 0);
+    }
+
+    /**
+     * An engine whose clock is its own tick count, {@code tickMillis} a
+     * tick. Seeded the same way and fed the same turns at the same ticks,
+     * two of these play exactly the same game, which is what replays need.
+     */
+    public GameEngine(int cols, int rows, Random random, long tickMillis) {
+        this(cols, rows, random, null, tickMillis);
+    }
+
+    public GameEngine(int cols, int rows) {
+        this(cols, rows, new Random(), System::currentTimeMillis);
+    }
+
+    private GameEngine(int cols, int rows, Random random, LongSupplier clock, long tickMillis) {
+        if (cols < 1 || rows < 1) {
+            throw new IllegalArgumentException("Board must be at least one cell: " + cols + "x" + rows);
+        }
+        this.cols = cols;
+        this.rows = rows;
+        this.random = random;
+        this.clock = clock;
+        this.tickMillis = tickMillis;
+        this.grid = new OccupancyGrid(cols, rows);
+        resetSnake();
+        repositionFood();
+        resetRedDotSpawnTimer();
+    }
+
+    /**
+     * Puts the snake back at its starting spot, restarts the red dot
+     * timer and puts the hunters down, like pressing Start does.
+     */
+    public void reset() {
+        resetSnakeAndRedDot();
+        placeHunters();
+    }
+
+    private void resetSnakeAndRedDot() {
+        resetSnake();
+        redDots.clear();
+        redDotDx = RED_DOT_SPEED;
+        redDotDy = RED_DOT_SPEED;
+        resetRedDotSpawnTimer();
+    }
+
+    /**
+     * Starts a game that depends on nothing but {@code seed} and
+     * {@code level}: reseeds the random source, then resets, lays out the
+     * level and places the food in a fixed order.
+     */
+    public void restart(long seed, int level) {
+        random.setSeed(seed);
+        resetSnakeAndRedDot();
+        if (grid.inside(food.x, food.y)) {
+            grid.clear(food.x, food.y, OccupancyGrid.FOOD);
+        }
+        food.setLocation(-1, -1);
+        loadLevel(level);
+        grid.sortFreeCells();
+        repositionFood();
+        placeHunters();
+    }
+
+    /**
+     * Has every reset and restart from now on put down {@code count}
+     * {@link Hunters}, which chase the head along one {@link FlowField}.
+     * A game with hunters cannot be saved with {@link #writeState}, so
+     * cannot be recorded either.
+     */
+    public void setHunters(int count) {
+        hunterCount = count;
+        if (count > 0 && hunters == null) {
+            hunters = new Hunters(cols, rows);
+        }
+    }
+
+    /**
+     * Has every red dot from now on come with {@code wave - 1} more, each
+     * on its own empty cell and heading off a different diagonal. A game
+     * with more than one red dot at a time cannot be saved with
+     * {@link #writeState}, so cannot be recorded either.
+     */
+    public void setRedDotWave(int wave) {
+        redDotWave = Math.max(1, wave);
+    }
+
+    /** Scatters the hunters over empty cells away from the head; draws nothing random without any. */
+    private void placeHunters() {
+        if (hunters == null) {
+            return;
+        }
+        hunters.clear();
+        for (int i = 0; i < hunterCount; i++) {
+            for (int tries = 0; tries < 100; tries++) {
+                int cell = randomFreeCell();
+                if (cell >= 0 && Math.abs(cell % cols - getHeadX()) + Math.abs(cell / cols - getHeadY())
+                        >= HUNTER_SPAWN_DISTANCE) {
+                    hunters.add(cell);
+                    break;
+                }
+            }
+        }
+    }
+
+    private void resetSnake() {
+        for (int i = 0; i < body.length(); i++) {
+            grid.clear(SnakeBody.x(body.get(i)), SnakeBody.y(body.get(i)), OccupancyGrid.BODY);
+        }
+        body.clear();
+        size = START_SIZE;
+        score = 0;
+        tick = 0;
+        vacated = NO_CELL;
+        int startX = Math.min(15, cols - 1), startY = Math.min(15, rows - 1);
+        for (int i = 0; i < size; i++) {
+            int x = Math.max(startX - i, 0);
+            body.pushTail(SnakeBody.pack(x, startY));
+            grid.set(x, startY, OccupancyGrid.BODY);
+        }
+        direction = RIGHT;
+    }
+
+    /**
+     * Changes direction unless it would turn the snake straight back on
+     * itself. Returns whether the turn was taken.
+     */
+    public boolean turn(int newDirection) {
+        if (newDirection < UP || newDirection > LEFT || newDirection == opposite(direction)) {
+            return false;
+        }
+        direction = newDirection;
+        return true;
+    }
+
+    /** Times each phase of {@link #step} into {@code profiler}; null turns timing off. */
+    public void setProfiler(Profiler profiler) {
+        this.profiler = profiler;
+    }
+
+    public static int opposite(int direction) {
+        return (direction + 2) & 3;
+    }
+
+    /** Which way a neighbouring cell lies from another. */
+    public static int directionBetween(int fromX, int fromY, int toX, int toY) {
+        if (toX > fromX) {
+            return RIGHT;
+        } else if (toX < fromX) {
+            return LEFT;
+        }
+        return toY < fromY ? UP : DOWN;
+    }
+
+    /**
+     * Advances the game by one tick. {@code input} is one of the direction
+     * constants or {@link #NONE}.
+     */
+    public Outcome step(int input) {
+        if (input != NONE) {
+            turn(input);
+        }
+        if (clock == null && tick % KEYFRAME_TICKS == 0) {
+            // random placement picks from the free cells by position, so put
+            // them in the order a loaded keyframe would have them
+            grid.sortFreeCells();
+        }
+        tick++;
+        vacated = NO_CELL;
+        long lap = profiler != null ? System.nanoTime() : 0;
+
+        int headX = SnakeBody.x(body.head()), headY = SnakeBody.y(body.head());
+        switch (direction) {
+            case UP:
+                headY--;
+                break;
+            case DOWN:
+                headY++;
+                break;
+            case LEFT:
+                headX--;
+                break;
+            case RIGHT:
+                headX++;
+                break;
+        }
+        if (headX < 0 || headY < 0 || headX >= cols || headY >= rows) {
+            return Outcome.HIT_WALL;
+        }
+        // The tail leaves before the head arrives, so chasing your own tail is fine.
+        if (body.length() >= size) {
+            int tail = body.popTail();
+            vacated = tail;
+            grid.clear(SnakeBody.x(tail), SnakeBody.y(tail), OccupancyGrid.BODY);
+        }
+        byte hit = grid.get(headX, headY);
+        body.pushHead(SnakeBody.pack(headX, headY));
+        grid.set(headX, headY, OccupancyGrid.BODY);
+        if (profiler != null) {
+            lap = profiler.lap(Profiler.MOVE, lap);
+        }
+
+        Outcome outcome = Outcome.RUNNING;
+        if ((hit & OccupancyGrid.FOOD) != 0) {
+            size++;
+            score += 10;
+            repositionFood();
+            outcome = Outcome.ATE;
+        }
+        if ((hit & OccupancyGrid.BODY) != 0) {
+            return Outcome.HIT_SELF;
+        }
+        if (profiler != null) {
+            lap = profiler.lap(Profiler.COLLISION, lap);
+        }
+        if ((hit & OccupancyGrid.OBSTACLE) != 0) {
+            return Outcome.HIT_OBSTACLE;
+        }
+        if (profiler != null) {
+            lap = profiler.lap(Profiler.OBSTACLE, lap);
+        }
+
+        maybeSpawnRedDot();
+        updateRedDots();
+        int hitRedDot = redDots.hit(headX * CELL, headY * CELL, CELL);
+        if (profiler != null) {
+            profiler.lap(Profiler.RED_DOT, lap);
+        }
+        if (hitRedDot >= 0) {
+            redDots.remove(hitRedDot);
+            return Outcome.HIT_RED_DOT;
+        }
+        if (hunters != null && hunters.count() > 0) {
+            int head = grid.index(headX, headY);
+            if (hunters.at(head) || tick % HUNTER_TICKS == 0 && hunters.chase(grid, head, tick)) {
+                return Outcome.HIT_HUNTER;
+            }
+        }
+        return outcome;
+    }
+
+    /**
+     * Moves the food to a random empty cell, every empty cell being as
+     * likely as any other. On a board with no empty cell left the food
+     * goes off the board.
+     */
+    public void repositionFood() {
+        if (grid.inside(food.x, food.y)) {
+            grid.clear(food.x, food.y, OccupancyGrid.FOOD);
+        }
+        foodKind = random.nextInt(FOOD_KINDS);
+        int cell = randomFreeCell();
+        if (cell < 0) {
+            food.setLocation(-1, -1);
+            return;
+        }
+        food.setLocation(cell % cols, cell / cols);
+        grid.set(food.x, food.y, OccupancyGrid.FOOD);
+    }
+
+    /** A grid index picked uniformly from the empty cells, or -1 if there are none. */
+    private int randomFreeCell() {
+        FreeCellSet free = grid.getFreeCells();
+        return free.size() == 0 ? -1 : free.get(random.nextInt(free.size()));
+    }
+
+    /**
+     * Lays out this level's bricks as {@link LevelGenerator#forLevel} says,
+     * clear of the snake's head and never cutting the board in two.
+     */
+    public void loadLevel(int level) {
+        this.level = level;
+        levelVersion++;
+        for (int i = 0; i < obstacleCount; i++) {
+            grid.clear(obstacles[i] % cols, obstacles[i] / cols, OccupancyGrid.OBSTACLE);
+        }
+        // the generator draws from the free cells, so the same level must start from the same order
+        grid.sortFreeCells();
+        if (spec == null || specLevel != level) {
+            spec = LevelGenerator.forLevel(level);
+            specLevel = level;
+        }
+        int count = levelGenerator.generate(grid, random, spec,
+                getHeadX(), getHeadY(), direction);
+        if (obstacles.length < count) {
+            obstacles = new int[count];
+        }
+        System.arraycopy(levelGenerator.getPlaced(), 0, obstacles, 0, count);
+        obstacleCount = count;
+    }
+
+    private long now() {
+        return clock != null ? clock.getAsLong() : tick * tickMillis;
+    }
+
+    private void resetRedDotSpawnTimer() {
+        nextRedDotSpawnDelay = 10000 + random.nextInt(20000);
+        lastRedDotSpawnTime = now();
+    }
+
+    private void maybeSpawnRedDot() {
+        long now = now();
+        int cell;
+        if (now - lastRedDotSpawnTime >= nextRedDotSpawnDelay && (cell = randomFreeCell()) >= 0) {
+            // on an empty cell, so it never appears on top of the snake; it takes the last one's place
+            redDots.clear();
+            addRedDot(cell, redDotDx, redDotDy, now);
+            for (int i = 1; i < redDotWave && (cell = randomFreeCell()) >= 0; i++) {
+                addRedDot(cell, (i & 1) == 0 ? redDotDx : -redDotDx, (i & 2) == 0 ? redDotDy : -redDotDy, now);
+            }
+            resetRedDotSpawnTimer();
+        }
+    }
+
+    private void addRedDot(int cell, int dx, int dy, long now) {
+        redDots.add(Entities.RED_DOT, Entities.KIND_SPRITE, cell % cols * CELL, cell / cols * CELL, dx, dy,
+                now + RED_DOT_LIFETIME);
+    }
+
+    private void updateRedDots() {
+        if (redDots.count() == 0) {
+            return;
+        }
+        redDots.update(cols * CELL - CELL, rows * CELL - CELL);
+        redDotDx = redDots.getDx(0);
+        redDotDy = redDots.getDy(0);
+        redDots.expire(now());
+    }
+
+    /** Bytes {@link #writeState} needs at most for the game as it stands. */
+    public int stateSize() {
+        return 120 + obstacleCount * 4 + body.length() * 4;
+    }
+
+    /**
+     * Writes everything that decides how the game goes on: the snake, food,
+     * bricks, red dot, timers and the random source's state. The body is
+     * stored as its head and two bits per segment for the way to the next
+     * one. Only engines running on a tick clock with a {@link GameRandom}
+     * can be saved, since nothing else about them could be restored. A
+     * game loaded from a state taken at a multiple of
+     * {@link #KEYFRAME_TICKS} goes on exactly like the one it was taken
+     * from; from other ticks food and red dots may land elsewhere.
+     */
+    public void writeState(ByteBuffer out) {
+        if (clock != null || !(random instanceof GameRandom)) {
+            throw new IllegalStateException("Only a tick clock engine with a GameRandom can be saved");
+        }
+        if (hunters != null && hunters.count() > 0) {
+            throw new IllegalStateException("A game with hunters cannot be saved");
+        }
+        if (redDotWave > 1) {
+            throw new IllegalStateException("A game with red dot waves cannot be saved");
+        }
+        out.putLong(tick);
+        out.put((byte) direction);
+        out.putInt(size);
+        out.putInt(score);
+        out.putInt(vacated);
+        out.putInt(SnakeBody.pack(food.x, food.y));
+        out.put((byte) foodKind);
+        out.putInt(level);
+        out.putInt(obstacleCount);
+        for (int i = 0; i < obstacleCount; i++) {
+            out.putInt(SnakeBody.pack(obstacles[i] % cols, obstacles[i] / cols));
+        }
+        boolean redDot = redDots.count() > 0;
+        out.put((byte) (redDot ? 1 : 0));
+        out.putInt(getRedDotX()).putInt(getRedDotY()).putInt(getPreviousRedDotX()).putInt(getPreviousRedDotY());
+        out.putInt(redDotDx).putInt(redDotDy);
+        out.putLong(redDot ? redDots.getExpiresAt(0) - RED_DOT_LIFETIME : 0);
+        out.putLong(lastRedDotSpawnTime).putLong(nextRedDotSpawnDelay);
+        out.putLong(((GameRandom) random).getState());
+
+        int length = body.length();
+        out.putInt(length);
+        out.putInt(body.head());
+        boolean linked = true;
+        for (int i = 1; i < length && linked; i++) {
+            linked = isNeighbour(body.get(i - 1), body.get(i));
+        }
+        out.put((byte) (linked ? 1 : 0));
+        if (linked) {
+            int bits = 0, packed = 0;
+            for (int i = 1; i < length; i++) {
+                int from = body.get(i - 1), to = body.get(i);
+                packed |= directionBetween(SnakeBody.x(from), SnakeBody.y(from),
+                        SnakeBody.x(to), SnakeBody.y(to)) << bits;
+                bits += 2;
+                if (bits == 8) {
+                    out.put((byte) packed);
+                    bits = 0;
+                    packed = 0;
+                }
+            }
+            if (bits > 0) {
+                out.put((byte) packed);
+            }
+        } else {
+            // a snake squashed against the edge of a tiny board has segments on the same cell
+            for (int i = 1; i < length; i++) {
+                out.putInt(body.get(i));
+            }
+        }
+    }
+
+    /** Puts the game back the way {@link #writeState} found it. */
+    public void readState(ByteBuffer in) {
+        if (clock != null || !(random instanceof GameRandom)) {
+            throw new IllegalStateException("Only a tick clock engine with a GameRandom can be loaded");
+        }
+        grid.clearAll();
+        if (hunters != null) {
+            hunters.clear();
+        }
+        tick = in.getLong();
+        direction = in.get();
+        size = in.getInt();
+        score = in.getInt();
+        vacated = in.getInt();
+        int foodCell = in.getInt();
+        food.setLocation(SnakeBody.x(foodCell), SnakeBody.y(foodCell));
+        foodKind = in.get();
+        level = in.getInt();
+        levelVersion++;
+        obstacleCount = in.getInt();
+        if (obstacles.length < obstacleCount) {
+            obstacles = new int[obstacleCount];
+        }
+        for (int i = 0; i < obstacleCount; i++) {
+            int cell = in.getInt();
+            obstacles[i] = grid.index(SnakeBody.x(cell), SnakeBody.y(cell));
+            grid.set(SnakeBody.x(cell), SnakeBody.y(cell), OccupancyGrid.OBSTACLE);
+        }
+        boolean redDot = in.get() != 0;
+        int redDotX = in.getInt(), redDotY = in.getInt();
+        int redDotPrevX = in.getInt(), redDotPrevY = in.getInt();
+        redDotDx = in.getInt();
+        redDotDy = in.getInt();
+        long redDotSpawnTime = in.getLong();
+        redDots.clear();
+        if (redDot) {
+            int dot = redDots.add(Entities.RED_DOT, Entities.KIND_SPRITE, redDotX, redDotY, redDotDx, redDotDy,
+                    redDotSpawnTime + RED_DOT_LIFETIME);
+            redDots.setPrevious(dot, redDotPrevX, redDotPrevY);
+        }
+        lastRedDotSpawnTime = in.getLong();
+        nextRedDotSpawnDelay = in.getLong();
+        ((GameRandom) random).setState(in.getLong());
+
+        int length = in.getInt();
+        body.clear();
+        int cell = in.getInt();
+        body.pushTail(cell);
+        if (in.get() != 0) {
+            int packed = 0;
+            for (int i = 1; i < length; i++) {
+                int bits = (i - 1) % 4 * 2;
+                if (bits == 0) {
+                    packed = in.get();
+                }
+                int x = SnakeBody.x(cell), y = SnakeBody.y(cell);
+                switch (packed >> bits & 3) {
+                    case UP:
+                        y--;
+                        break;
+                    case DOWN:
+                        y++;
+                        break;
+                    case LEFT:
+                        x--;
+                        break;
+                    case RIGHT:
+                        x++;
+                        break;
+                }
+                cell = SnakeBody.pack(x, y);
+                body.pushTail(cell);
+            }
+        } else {
+            for (int i = 1; i < length; i++) {
+                body.pushTail(in.getInt());
+            }
+        }
+        for (int i = 0; i < length; i++) {
+            grid.set(SnakeBody.x(body.get(i)), SnakeBody.y(body.get(i)), OccupancyGrid.BODY);
+        }
+        if (grid.inside(food.x, food.y)) {
+            grid.set(food.x, food.y, OccupancyGrid.FOOD);
+        }
+        grid.sortFreeCells();
+    }
+
+    private static boolean isNeighbour(int a, int b) {
+        return Math.abs(SnakeBody.x(a) - SnakeBody.x(b)) + Math.abs(SnakeBody.y(a) - SnakeBody.y(b)) == 1;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    /** What is on each cell right now; read only, the engine owns it. */
+    public OccupancyGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * A {@link Zobrist} hash of the position: bricks, food, body, head,
+     * tail, direction, growth still to come, the red dots and any hunters.
+     * Equal positions hash equal; the timers behind the red dot's comings
+     * and goings are not part of it. The grid and the hunters keep their
+     * parts up to date as things move, so this costs the same on any board.
+     */
+    public long hash() {
+        int length = body.length();
+        long hash = grid.getHash()
+                ^ Zobrist.head(grid.index(getHeadX(), getHeadY()))
+                ^ Zobrist.tail(grid.index(getSegmentX(length - 1), getSegmentY(length - 1)))
+                ^ Zobrist.direction(direction)
+                ^ Zobrist.growing(Math.max(0, size - length));
+        for (int i = 0; i < redDots.count(); i++) {
+            hash ^= Zobrist.redDot(redDots.getX(i), redDots.getY(i), redDots.getDx(i), redDots.getDy(i));
+        }
+        if (hunters != null) {
+            hash ^= hunters.getHash();
+        }
+        return hash;
+    }
+
+    public int getDirection() {
+        return direction;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    /** Goes up every time the bricks are laid out again. */
+    public long getLevelVersion() {
+        return levelVersion;
+    }
+
+    /** Ticks stepped since the last reset. */
+    public long getTick() {
+        return tick;
+    }
+
+    /** Number of body segments, head first. */
+    public int getLength() {
+        return body.length();
+    }
+
+    public int getSegmentX(int i) {
+        return SnakeBody.x(body.get(i));
+    }
+
+    public int getSegmentY(int i) {
+        return SnakeBody.y(body.get(i));
+    }
+
+    /**
+     * Where segment {@code i} was one tick ago, for drawing in between
+     * ticks. Each segment steps into the cell of the one ahead of it, so
+     * this is the next segment back, or the cell the tail just left.
+     */
+    public int getPreviousSegmentX(int i) {
+        if (i + 1 < body.length()) {
+            return getSegmentX(i + 1);
+        }
+        return vacated == NO_CELL ? getSegmentX(i) : SnakeBody.x(vacated);
+    }
+
+    public int getPreviousSegmentY(int i) {
+        if (i + 1 < body.length()) {
+            return getSegmentY(i + 1);
+        }
+        return vacated == NO_CELL ? getSegmentY(i) : SnakeBody.y(vacated);
+    }
+
+    public int getHeadX() {
+        return getSegmentX(0);
+    }
+
+    public int getHeadY() {
+        return getSegmentY(0);
+    }
+
+    public int getFoodX() {
+        return food.x;
+    }
+
+    public int getFoodY() {
+        return food.y;
+    }
+
+    public int getFoodKind() {
+        return foodKind;
+    }
+
+    public int getObstacleCount() {
+        return obstacleCount;
+    }
+
+    public int getObstacleX(int i) {
+        return obstacles[i] % cols;
+    }
+
+    public int getObstacleY(int i) {
+        return obstacles[i] / cols;
+    }
+
+    public boolean isRedDotActive() {
+        return redDots.count() > 0;
+    }
+
+    /** The first red dot's position in pixels, or 0 if there is none. */
+    public int getRedDotX() {
+        return redDots.count() > 0 ? redDots.getX(0) : 0;
+    }
+
+    public int getRedDotY() {
+        return redDots.count() > 0 ? redDots.getY(0) : 0;
+    }
+
+    public int getPreviousRedDotX() {
+        return redDots.count() > 0 ? redDots.getPreviousX(0) : 0;
+    }
+
+    public int getPreviousRedDotY() {
+        return redDots.count() > 0 ? redDots.getPreviousY(0) : 0;
+    }
+
+    /** Pixels the first red dot moves each tick; it turns back off the edges. */
+    public int getRedDotDx() {
+        return redDotDx;
+    }
+
+    public int getRedDotDy() {
+        return redDotDy;
+    }
+
+    /** Every red dot on the board, of which the one the getters above describe is the first. */
+    public Entities getRedDots() {
+        return redDots;
+    }
+
+    /** The hunters, or null if {@link #setHunters} was never given any. */
+    public Hunters getHunters() {
+        return hunters;
+    }
+}
@@ -0,0 +1,171 @@
+package Example;
+
+import java.awt.Canvas;
+import java.awt.Graphics2D;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An active-rendering loop for a {@link Canvas}. The game logic is stepped
+ * at a fixed tick rate out of an accumulator, and frames are drawn into a
+ * page-flipped {@link BufferStrategy} as often as the target frame rate
+ * allows, with the fraction of a tick that has passed since the last update
+ * handed to the renderer so it can draw in between ticks.
+ *
+ * A frame that takes more than one and a half frame intervals counts as
+ * dropped. If the machine falls so far behind that more than
+ * {@link #MAX_TICKS_PER_FRAME} ticks are due at once, the extra ones are
+ * skipped rather than letting the game spiral.
+ */
+public class GameLoop implements Runnable {
+    public interface Game {
+        /** One fixed simulation tick. */
+        void update();
+
+        /** Draws a frame, {@code alpha} of the way from the last tick to the next. */
+        void render(Graphics2D g, int width, int height, double alpha);
+    }
+
+    private static final int MAX_TICKS_PER_FRAME = 5;
+    private static final long REPORT_INTERVAL = 5_000_000_000L;
+
+    private final Canvas canvas;
+    private final Game game;
+    private final long tickNanos;
+    private volatile long frameNanos;
+    private volatile boolean running;
+    private Thread thread;
+
+    private volatile long frames, droppedFrames, ticks, skippedTicks;
+    private volatile double fps;
+
+    public GameLoop(Canvas canvas, Game game, long tickMillis, int targetFps) {
+        this.canvas = canvas;
+        this.game = game;
+        this.tickNanos = tickMillis * 1_000_000L;
+        setTargetFps(targetFps);
+    }
+
+    /** Zero or less means draw as fast as possible. */
+    public void setTargetFps(int targetFps) {
+        frameNanos = targetFps > 0 ? 1_000_000_000L / targetFps : 0;
+    }
+
+    /** Must be called once the canvas is showing. */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        canvas.createBufferStrategy(2);
+        running = true;
+        thread = new Thread(this, "game-loop");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    @Override
+    public void run() {
+        BufferStrategy strategy = canvas.getBufferStrategy();
+        boolean report = Boolean.getBoolean("snake.loopStats");
+        long previous = System.nanoTime();
+        long accumulator = 0;
+        long windowStart = previous, windowFrames = 0;
+
+        while (running) {
+            long now = System.nanoTime();
+            long elapsed = now - previous;
+            previous = now;
+
+            long frameTarget = frameNanos;
+            if (frames > 0 && frameTarget > 0 && elapsed > frameTarget * 3 / 2) {
+                droppedFrames += elapsed / frameTarget - 1;
+            }
+
+            accumulator += elapsed;
+            int steps = 0;
+            while (accumulator >= tickNanos && steps < MAX_TICKS_PER_FRAME) {
+                game.update();
+                accumulator -= tickNanos;
+                steps++;
+                ticks++;
+            }
+            if (accumulator >= tickNanos) {
+                skippedTicks += accumulator / tickNanos;
+                accumulator %= tickNanos;
+            }
+
+            render(strategy, (double) accumulator / tickNanos);
+            frames++;
+            windowFrames++;
+
+            if (now - windowStart >= REPORT_INTERVAL) {
+                fps = windowFrames * 1e9 / (now - windowStart);
+                windowStart = now;
+                windowFrames = 0;
+                if (report) {
+                    System.out.println(report());
+                }
+            }
+
+            if (frameTarget > 0) {
+                long wake = now + frameTarget;
+                long wait;
+                while ((wait = wake - System.nanoTime()) > 0 && running) {
+                    LockSupport.parkNanos(wait);
+                }
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    private void render(BufferStrategy strategy, double alpha) {
+        do {
+            do {
+                Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    game.render(g, canvas.getWidth(), canvas.getHeight(), alpha);
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
+    }
+
+    public long getFrames() {
+        return frames;
+    }
+
+    public long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public long getSkippedTicks() {
+        return skippedTicks;
+    }
+
+    /** Frames per second over the last report interval. */
+    public double getFps() {
+        return fps;
+    }
+
+    public String report() {
+        return String.format("%.1f fps, %d frames, %d dropped, %d ticks, %d ticks skipped",
+                fps, frames, droppedFrames, ticks, skippedTicks);
+    }
+}
@@ -0,0 +1,48 @@
+package Example;
+
+import java.util.Random;
+
+/**
+ * The same generator as {@link Random}, with its 48 bit state out in the
+ * open so a game can be saved mid-way and carry on drawing the same
+ * numbers after it is loaded again. Unlike {@link Random} it is not safe
+ * to share between threads.
+ */
+public class GameRandom extends Random {
+    private static final long serialVersionUID = 3623969779537367574L;
+
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    // set by setSeed, which Random's constructor calls before this class is initialised
+    private long state;
+
+    public GameRandom() {
+        super();
+    }
+
+    public GameRandom(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        super.setSeed(seed);
+        state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    @Override
+    protected int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    public long getState() {
+        return state;
+    }
+
+    public void setState(long state) {
+        this.state = state & MASK;
+    }
+}
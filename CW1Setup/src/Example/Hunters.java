@@ -0,0 +1,114 @@
+package Example;
+
+import java.util.Arrays;
+
+/**
+ * Enemies that home in on the snake's head. They go round bricks and the
+ * snake's body rather than through them, and more than one can share a
+ * cell. Rather than each finding its own way, they all follow one
+ * {@link FlowField} worked out once a move, so a move costs one search of
+ * the board plus a step per hunter, whether there is one or ten thousand.
+ *
+ * Each hunter is a cell in an int array, and a count per cell says how
+ * many are standing there, so asking whether the head has run into one is
+ * a single read.
+ */
+public class Hunters {
+    private final FlowField flow;
+    private final int[] crowd;
+    private int[] cells = new int[16];
+    private int[] previous = new int[16];
+    private int count;
+    private long movedAt = -1;
+    private long hash;
+
+    public Hunters(int cols, int rows) {
+        flow = new FlowField(cols, rows);
+        crowd = new int[cols * rows];
+    }
+
+    public void clear() {
+        for (int i = 0; i < count; i++) {
+            crowd[cells[i]] = 0;
+        }
+        count = 0;
+        hash = 0;
+        movedAt = -1;
+    }
+
+    /** Puts a hunter on grid index {@code cell}. */
+    public void add(int cell) {
+        if (count == cells.length) {
+            cells = Arrays.copyOf(cells, count * 2);
+            previous = Arrays.copyOf(previous, count * 2);
+        }
+        cells[count] = cell;
+        previous[count] = cell;
+        count++;
+        enter(cell);
+    }
+
+    /**
+     * Works out the way to {@code target} and moves every hunter one cell
+     * along it. Returns whether any hunter is on the target afterwards.
+     */
+    public boolean chase(OccupancyGrid grid, int target, long tick) {
+        flow.compute(grid, target, OccupancyGrid.BLOCKED, cells, count);
+        for (int i = 0; i < count; i++) {
+            int from = cells[i];
+            int to = flow.next(from);
+            previous[i] = from;
+            if (to != from) {
+                leave(from);
+                enter(to);
+                cells[i] = to;
+            }
+        }
+        movedAt = tick;
+        return crowd[target] > 0;
+    }
+
+    // a cell's part of the hash depends on how many stand on it, so two hunters do not cancel out
+    private void enter(int cell) {
+        hash ^= Zobrist.hunters(cell, crowd[cell]) ^ Zobrist.hunters(cell, crowd[cell] + 1);
+        crowd[cell]++;
+    }
+
+    private void leave(int cell) {
+        hash ^= Zobrist.hunters(cell, crowd[cell]) ^ Zobrist.hunters(cell, crowd[cell] - 1);
+        crowd[cell]--;
+    }
+
+    /** Whether a hunter is on grid index {@code cell}. */
+    public boolean at(int cell) {
+        return crowd[cell] > 0;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /** Grid index of hunter {@code i}. */
+    public int getCell(int i) {
+        return cells[i];
+    }
+
+    /** Where hunter {@code i} was before its last move. */
+    public int getPreviousCell(int i) {
+        return previous[i];
+    }
+
+    /** The tick of the last move, or -1 if they have not moved since being put down. */
+    public long getMovedAt() {
+        return movedAt;
+    }
+
+    /** {@link Zobrist} hash of where the hunters are, kept up to date as they move. */
+    public long getHash() {
+        return hash;
+    }
+
+    public FlowField getFlow() {
+        return flow;
+    }
+}
@@ -1,42 +1,57 @@
 package Example;
 
-import java.awt.Image;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class ImageUtil
 {
-	public static Map<String, Image> images = new HashMap<>();
+	/*
+	 * Nothing is decoded here, the pictures are only registered. The start
+	 * screen's are asked for straight away and everything else follows on
+	 * the loader's threads; images.get(key) waits for the one it needs.
+	 */
+	public static final AssetLoader images = new AssetLoader();
+
+	public static final String[] START_SCREEN = {"game-start-scene"};
+
+	public static final CompletableFuture<Void> allLoaded;
 
 	static
 	{
 		// snake
-		images.put("snake-head-right", GameUtil.getImage("example/snake-head-right.png"));
-		images.put("snake-body", GameUtil.getImage("example/snake-body.png"));
+		images.register("snake-head-right", "Example/snake-head-right.png");
+		images.register("snake-body", "Example/snake-body.png");
 		// obstacles
-		images.put("0", GameUtil.getImage("example/food-kiwi.png"));
-		images.put("1", GameUtil.getImage("example/food-lemon.png"));
-		images.put("2", GameUtil.getImage("example/food-litchi.png"));
-		images.put("3", GameUtil.getImage("example/food-mango.png"));
-		images.put("4", GameUtil.getImage("example/food-apple.png"));
-		images.put("5", GameUtil.getImage("example/food-banana.png"));
-		images.put("6", GameUtil.getImage("example/food-blueberry.png"));
-		images.put("7", GameUtil.getImage("example/food-cherry.png"));
-		images.put("8", GameUtil.getImage("example/food-durian.png"));
-		images.put("9", GameUtil.getImage("example/food-grape.png"));
-		images.put("10", GameUtil.getImage("example/food-grapefruit.png"));
-		images.put("11", GameUtil.getImage("example/food-peach.png"));
-		images.put("12", GameUtil.getImage("example/food-pear.png"));
-		images.put("13", GameUtil.getImage("example/food-orange.png"));
-		images.put("14", GameUtil.getImage("example/food-pineapple.png"));
-		images.put("15", GameUtil.getImage("example/food-strawberry.png"));
-		images.put("16", GameUtil.getImage("example/food-watermelon.png"));
-		images.put("UI-background", GameUtil.getImage("example/UI-background.png"));
-		images.put("game-scene-01", GameUtil.getImage("example/game-scene-01.jpg"));
-		images.put("game-start-scene" , GameUtil.getImage("example/1629702755362_84a39ede3284dfcaa71703c98647a8f5.jpg"));
-		images.put("brick-1", GameUtil.getImage("example/1.png"));
-		images.put("brick-2", GameUtil.getImage("example/2.png"));
-		images.put("brick-3", GameUtil.getImage("example/3.png"));
+		images.register("0", "Example/food-kiwi.png");
+		images.register("1", "Example/food-lemon.png");
+		images.register("2", "Example/food-litchi.png");
+		images.register("3", "Example/food-mango.png");
+		images.register("4", "Example/food-apple.png");
+		images.register("5", "Example/food-banana.png");
+		images.register("6", "Example/food-blueberry.png");
+		images.register("7", "Example/food-cherry.png");
+		images.register("8", "Example/food-durian.png");
+		images.register("9", "Example/food-grape.png");
+		images.register("10", "Example/food-grapefruit.png");
+		images.register("11", "Example/food-peach.png");
+		images.register("12", "Example/food-pear.png");
+		images.register("13", "Example/food-orange.png");
+		images.register("14", "Example/food-pineapple.png");
+		images.register("15", "Example/food-strawberry.png");
+		images.register("16", "Example/food-watermelon.png");
+		images.register("UI-background", "Example/UI-background.png");
+		images.register("game-scene-01", "Example/game-scene-01.jpg");
+		images.register("game-start-scene", "Example/1629702755362_84a39ede3284dfcaa71703c98647a8f5.jpg");
+		images.register("brick-1", "Example/1.png");
+		images.register("brick-2", "Example/2.png");
+		images.register("brick-3", "Example/3.png");
+		// sprite sheets
+		images.register("snake-sprites", "Example/snake_sprites.png");
+		images.register("snake-graphics", "Example/snake-graphics.png");
 
+		allLoaded = images.request(START_SCREEN).thenCompose(done -> images.requestAll());
+		if (Boolean.getBoolean("snake.assetReport"))
+		{
+			allLoaded.thenRun(() -> System.out.print(images.report()));
+		}
 	}
 }
@@ -0,0 +1,80 @@
+package Example;
+
+import java.util.Arrays;
+
+/**
+ * Counts of durations in nanoseconds, bucketed by power of two with eight
+ * steps inside each power, so any value is placed within about 12%.
+ * Recording is an array increment and never allocates. Meant to be written
+ * by one thread; other threads may read it, slightly stale.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int LINEAR = SUB_BUCKETS * 2;
+    private static final int BUCKETS = LINEAR + (64 - SUB_BITS - 1) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long total;
+    private long max;
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        counts[bucket(nanos)]++;
+        total++;
+        if (nanos > max) {
+            max = nanos;
+        }
+    }
+
+    static int bucket(long value) {
+        if (value < LINEAR) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR + (exponent - SUB_BITS - 1) * SUB_BUCKETS + sub;
+    }
+
+    /** The highest value that lands in {@code bucket}. */
+    static long upperBound(int bucket) {
+        if (bucket < LINEAR) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR) / SUB_BUCKETS + SUB_BITS + 1;
+        long sub = (bucket - LINEAR) % SUB_BUCKETS;
+        return ((SUB_BUCKETS + sub + 1) << (exponent - SUB_BITS)) - 1;
+    }
+
+    public long count() {
+        return total;
+    }
+
+    public long max() {
+        return max;
+    }
+
+    /** Value at {@code fraction} (0.5 for the median) of the way up, never above the max. */
+    public long percentile(double fraction) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+        total = 0;
+        max = 0;
+    }
+}
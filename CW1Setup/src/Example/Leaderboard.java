@@ -0,0 +1,91 @@
+package Example;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Every score ever recorded, ranked overall, per level, per week and per
+ * level and week, each in its own {@link RankedList}, so "what rank is this run?"
+ * and "top ten on level 2 this week" are both a walk down a skip list.
+ * Weeks start on Monday in the machine's time zone.
+ *
+ * Not thread safe; {@link ScoreStore} guards it.
+ */
+public class Leaderboard {
+    private final ZoneId zone;
+    private final RankedList<ScoreStore.Score> all = new RankedList<>(ScoreStore.Score::compareTo);
+    private final Map<Integer, RankedList<ScoreStore.Score>> byLevel = new HashMap<>();
+    private final Map<Long, RankedList<ScoreStore.Score>> byWeek = new HashMap<>();
+    private final Map<Long, RankedList<ScoreStore.Score>> byLevelWeek = new HashMap<>();
+
+    public Leaderboard() {
+        this(ZoneId.systemDefault());
+    }
+
+    public Leaderboard(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    public void add(ScoreStore.Score score) {
+        all.add(score);
+        byLevel.computeIfAbsent(score.level, k -> new RankedList<>(ScoreStore.Score::compareTo)).add(score);
+        long week = weekOf(score.time);
+        byWeek.computeIfAbsent(week, k -> new RankedList<>(ScoreStore.Score::compareTo)).add(score);
+        byLevelWeek.computeIfAbsent(key(score.level, week),
+                k -> new RankedList<>(ScoreStore.Score::compareTo)).add(score);
+    }
+
+    public int size() {
+        return all.size();
+    }
+
+    public RankedList<ScoreStore.Score> all() {
+        return all;
+    }
+
+    /** Scores on one level; an empty list if nobody has played it. */
+    public RankedList<ScoreStore.Score> level(int level) {
+        return orEmpty(byLevel.get(level));
+    }
+
+    /** Scores on every level in the week that {@code time} falls in. */
+    public RankedList<ScoreStore.Score> week(long time) {
+        return orEmpty(byWeek.get(weekOf(time)));
+    }
+
+    /** Scores on one level in the week that {@code time} falls in. */
+    public RankedList<ScoreStore.Score> levelWeek(int level, long time) {
+        return orEmpty(byLevelWeek.get(key(level, weekOf(time))));
+    }
+
+    /** 1 for the best score in {@code list}; ties share the better rank. */
+    public static int rank(RankedList<ScoreStore.Score> list, int score) {
+        return list.rank(new ScoreStore.Score("", score, 0, Long.MIN_VALUE)) + 1;
+    }
+
+    /** Share of {@code list} that {@code score} beats or equals, from 0 to 100. */
+    public static double percentile(RankedList<ScoreStore.Score> list, int score) {
+        if (list.size() == 0) {
+            return 100;
+        }
+        return 100.0 * (list.size() - rank(list, score) + 1) / list.size();
+    }
+
+    /** Monday-based weeks counted from the epoch. */
+    public long weekOf(long time) {
+        long day = LocalDate.ofInstant(Instant.ofEpochMilli(time), zone).toEpochDay();
+        // 1970-01-01 was a Thursday
+        return Math.floorDiv(day + 3, 7);
+    }
+
+    private static long key(int level, long week) {
+        return (long) level << 40 ^ week;
+    }
+
+    private static RankedList<ScoreStore.Score> orEmpty(RankedList<ScoreStore.Score> list) {
+        return list != null ? list : RankedList.empty();
+    }
+}
@@ -0,0 +1,239 @@
+package Example;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Lays out a level's bricks on an {@link OccupancyGrid}. How many bricks
+ * and what shapes they make come from a {@link Spec}, given as a share of
+ * the board so levels look alike on any board size.
+ *
+ * Every brick starts from a cell drawn from the grid's free cells, so
+ * nothing is ever put on the snake, the food or another brick, and the
+ * number of tries is capped, so it always finishes. A brick is only placed
+ * if its neighbours stay connected around it, which keeps every open cell
+ * reachable from every other without searching the whole board each time.
+ * A 1000x1000 board takes a few milliseconds.
+ */
+public class LevelGenerator {
+    public enum Pattern {
+        /** Single bricks anywhere. */
+        SCATTER,
+        /** Straight walls, across or down. */
+        WALLS,
+        /** Blobs grown out from a brick. */
+        CLUSTERS
+    }
+
+    /** What a level looks like. */
+    public static class Spec {
+        public final Pattern pattern;
+        /** Share of the board to cover in bricks. */
+        public final double density;
+        /** Bricks to place however small the board. */
+        public final int minBricks;
+        /** Longest wall or biggest blob, in bricks. */
+        public final int pieceSize;
+        /** Cells around the head, and ahead of it, that are kept clear. */
+        public final int safeRadius;
+
+        public Spec(Pattern pattern, double density, int minBricks, int pieceSize, int safeRadius) {
+            this.pattern = pattern;
+            this.density = density;
+            this.minBricks = minBricks;
+            this.pieceSize = pieceSize;
+            this.safeRadius = safeRadius;
+        }
+    }
+
+    private static final Spec[] LEVELS = {
+            new Spec(Pattern.SCATTER, 0.007, 8, 1, 5),
+            new Spec(Pattern.WALLS, 0.02, 12, 6, 5),
+            new Spec(Pattern.CLUSTERS, 0.035, 16, 8, 5),
+    };
+
+    // N, NE, E, SE, S, SW, W, NW: each is 4-adjacent to the next
+    private static final int[] RING_X = {0, 1, 1, 1, 0, -1, -1, -1};
+    private static final int[] RING_Y = {-1, -1, 0, 1, 1, 1, 0, -1};
+    private static final int[] STEP_X = {0, 1, 0, -1};
+    private static final int[] STEP_Y = {-1, 0, 1, 0};
+
+    private int[] placed = new int[64];
+    private int count;
+    private int[] queue = new int[0];
+    private int[] seen = new int[0];
+    private int generation;
+
+    /** The spec for a level; levels past the last get denser versions of it. */
+    public static Spec forLevel(int level) {
+        int i = Math.max(level, 1) - 1;
+        if (i < LEVELS.length) {
+            return LEVELS[i];
+        }
+        Spec last = LEVELS[LEVELS.length - 1];
+        double density = Math.min(0.3, last.density * (1 + 0.25 * (i - LEVELS.length + 1)));
+        return new Spec(last.pattern, density, last.minBricks, last.pieceSize, last.safeRadius);
+    }
+
+    /**
+     * Places the bricks and returns how many; {@link #getPlaced} holds
+     * their cells as {@link OccupancyGrid#index} values. The snake's head
+     * is at ({@code headX}, {@code headY}) heading {@code direction}.
+     */
+    public int generate(OccupancyGrid grid, Random random, Spec spec, int headX, int headY, int direction) {
+        int cells = grid.getCols() * grid.getRows();
+        int target = Math.max(spec.minBricks, (int) Math.round(cells * spec.density));
+        count = 0;
+        if (placed.length < target) {
+            placed = new int[target];
+        }
+        FreeCellSet free = grid.getFreeCells();
+        int maxTries = target * 4 + 100;
+        for (int tries = 0; tries < maxTries && count < target && free.size() > 0; tries++) {
+            int cell = free.get(random.nextInt(free.size()));
+            int x = cell % grid.getCols(), y = cell / grid.getCols();
+            if (!place(grid, spec, x, y, headX, headY, direction)) {
+                continue;
+            }
+            switch (spec.pattern) {
+                case WALLS:
+                    growWall(grid, random, spec, x, y, target, headX, headY, direction);
+                    break;
+                case CLUSTERS:
+                    growCluster(grid, random, spec, x, y, target, headX, headY, direction);
+                    break;
+                default:
+                    break;
+            }
+        }
+        return count;
+    }
+
+    public int[] getPlaced() {
+        return placed;
+    }
+
+    private void growWall(OccupancyGrid grid, Random random, Spec spec, int x, int y, int target,
+                          int headX, int headY, int direction) {
+        int way = random.nextInt(4);
+        int length = 1 + random.nextInt(spec.pieceSize);
+        for (int i = 1; i < length && count < target; i++) {
+            x += STEP_X[way];
+            y += STEP_Y[way];
+            if (!place(grid, spec, x, y, headX, headY, direction)) {
+                return;
+            }
+        }
+    }
+
+    private void growCluster(OccupancyGrid grid, Random random, Spec spec, int x, int y, int target,
+                             int headX, int headY, int direction) {
+        int first = count - 1;
+        int size = 1 + random.nextInt(spec.pieceSize);
+        for (int tries = 0; tries < size * 3 && count - first < size && count < target; tries++) {
+            // grow from any brick of this blob, one step in any direction
+            int from = placed[first + random.nextInt(count - first)];
+            int way = random.nextInt(4);
+            place(grid, spec, from % grid.getCols() + STEP_X[way], from / grid.getCols() + STEP_Y[way],
+                    headX, headY, direction);
+        }
+    }
+
+    private boolean place(OccupancyGrid grid, Spec spec, int x, int y, int headX, int headY, int direction) {
+        if (!grid.inside(x, y) || grid.get(x, y) != OccupancyGrid.EMPTY
+                || isSafe(spec, x, y, headX, headY, direction) || !keepsConnected(grid, x, y)) {
+            return false;
+        }
+        grid.set(x, y, OccupancyGrid.OBSTACLE);
+        placed[count++] = grid.index(x, y);
+        return true;
+    }
+
+    /** Near the head, or in the lane it is about to run down. */
+    private static boolean isSafe(Spec spec, int x, int y, int headX, int headY, int direction) {
+        int dx = x - headX, dy = y - headY;
+        int r = spec.safeRadius;
+        if (Math.abs(dx) <= r && Math.abs(dy) <= r) {
+            return true;
+        }
+        if (direction < 0) {
+            return false;
+        }
+        int ahead = dx * STEP_X[direction] + dy * STEP_Y[direction];
+        int aside = Math.abs(dx * STEP_Y[direction] - dy * STEP_X[direction]);
+        return ahead > 0 && ahead <= r * 4 && aside <= 1;
+    }
+
+    /**
+     * Whether the open cells next to ({@code x}, {@code y}) stay connected
+     * to each other if it is bricked up. Walking round the eight cells
+     * around it, each is beside the next, so one unbroken run of open
+     * cells holding all the open side neighbours means anything that went
+     * through this cell can go round it instead.
+     */
+    private static boolean keepsConnected(OccupancyGrid grid, int x, int y) {
+        // start just after a blocked cell so no run wraps past the end
+        int start = -1;
+        for (int k = 0; k < 8 && start < 0; k++) {
+            if (!isOpen(grid, x + RING_X[k], y + RING_Y[k])) {
+                start = k;
+            }
+        }
+        if (start < 0) {
+            return true;
+        }
+        int runs = 0;
+        boolean runHasSide = false;
+        for (int i = 1; i <= 8; i++) {
+            int k = (start + i) & 7;
+            if (isOpen(grid, x + RING_X[k], y + RING_Y[k])) {
+                runHasSide |= (k & 1) == 0;
+            } else {
+                if (runHasSide) {
+                    runs++;
+                }
+                runHasSide = false;
+            }
+        }
+        return runs <= 1;
+    }
+
+    private static boolean isOpen(OccupancyGrid grid, int x, int y) {
+        return grid.inside(x, y) && !grid.has(x, y, OccupancyGrid.OBSTACLE);
+    }
+
+    /**
+     * How many cells without a brick can be reached from ({@code x},
+     * {@code y}); equal to the number of such cells on a connected board.
+     */
+    public int countReachable(OccupancyGrid grid, int x, int y) {
+        int cells = grid.getCols() * grid.getRows();
+        if (queue.length < cells) {
+            queue = new int[cells];
+            seen = new int[cells];
+            generation = 0;
+        }
+        if (++generation == 0) {
+            Arrays.fill(seen, 0);
+            generation = 1;
+        }
+        int head = 0, tail = 0;
+        queue[tail++] = grid.index(x, y);
+        seen[grid.index(x, y)] = generation;
+        while (head < tail) {
+            int cell = queue[head++];
+            int cx = cell % grid.getCols(), cy = cell / grid.getCols();
+            for (int way = 0; way < 4; way++) {
+                int nx = cx + STEP_X[way], ny = cy + STEP_Y[way];
+                if (isOpen(grid, nx, ny)) {
+                    int next = grid.index(nx, ny);
+                    if (seen[next] != generation) {
+                        seen[next] = generation;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+        return tail;
+    }
+}
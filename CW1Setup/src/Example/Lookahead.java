@@ -0,0 +1,320 @@
+package Example;
+
+import java.util.Arrays;
+
+/**
+ * Plays by trying every sequence of moves up to a horizon some ticks
+ * ahead and taking the first move of the best one: eating soon scores
+ * most, dying scores least, and a line that does neither is scored by how
+ * close it ends to the food. Cells the red dots will pass through are
+ * kept off at the ticks they pass.
+ *
+ * The search plays the moves out on its own copy of the board, taking
+ * each back when done, and keeps the position's {@link Zobrist} hash up
+ * to date as it goes. Positions it scores go into a
+ * {@link TranspositionTable}, which may be shared with searches on other
+ * threads.
+ *
+ * The horizon is a tick, not a number of moves: it stays put for
+ * {@code window} ticks and then jumps on. So while it stays put, every
+ * position the next search reaches was scored by the last one to the very
+ * same horizon, and a decision is a few lookups rather than a search.
+ * The horizon and the red dots' paths are mixed into every hash, so only a
+ * result searched to the same horizon with the same dots about is ever
+ * taken from the table, and short of the rare hash clash {@link Zobrist} owns up to, a
+ * decision is the same with or without the table, whoever else is using
+ * it.
+ */
+public class Lookahead implements Strategy {
+    private static final int[] STEP_X = {0, 1, 0, -1};
+    private static final int[] STEP_Y = {-1, 0, 1, 0};
+    private static final int DEATH = -1_000_000;
+    private static final int FOOD = 100_000;
+    // a position this close to the horizon is quicker searched than looked up
+    private static final int MIN_TABLE_DEPTH = 2;
+
+    private final TranspositionTable table;
+    private final int depth, window;
+    // the tick searched up to, the tick the window opened and the red dot then
+    private long horizon = -1;
+    private long windowStart;
+    private boolean dotActive;
+    private long salt;
+    private int rootOffset;
+
+    // the search's copy of the game
+    private int cols, rows;
+    private byte[] cells = new byte[0];
+    private final SnakeBody body = new SnakeBody();
+    private int direction;
+    private int growing;
+    private int food;
+    private long hash;
+    // cells the red dot will cover, and in which ticks of the window as bits
+    private int[] dangerMark = new int[0];
+    private int dangerSearch;
+    private long[] dangerTicks = new long[0];
+
+    // what each ply changed, to take it back
+    private final long[] savedHash;
+    private final int[] savedDirection;
+    private final int[] savedGrowing;
+    private final int[] savedTail;
+    private final boolean[] ate;
+    // a short snake can come back round to the same position, so the table is keyed by how far is left too
+    private final long[] remainingKey;
+
+    private long nodes, hits;
+
+    /**
+     * A search at least {@code depth} moves deep, its horizon moving on
+     * every {@code window} ticks, keeping what it finds in {@code table}.
+     */
+    public Lookahead(TranspositionTable table, int depth, int window) {
+        this.table = table;
+        this.depth = depth;
+        this.window = window;
+        if (depth < 1 || window < 1 || depth + window > 62) {
+            throw new IllegalArgumentException("Depth and window must be at least 1 and add up to at most 62: "
+                    + depth + ", " + window);
+        }
+        int plies = depth + window;
+        savedHash = new long[plies];
+        savedDirection = new int[plies];
+        savedGrowing = new int[plies];
+        savedTail = new int[plies];
+        ate = new boolean[plies];
+        remainingKey = new long[plies + 1];
+        for (int i = 0; i <= plies; i++) {
+            remainingKey[i] = Zobrist.salt(-1 - i);
+        }
+    }
+
+    public Lookahead() {
+        this(new TranspositionTable(1 << 18), 8, 4);
+    }
+
+    @Override
+    public int decide(GameEngine engine) {
+        copy(engine);
+        long tick = engine.getTick();
+        if (horizon - tick < depth || horizon - tick >= depth + window || engine.isRedDotActive() != dotActive) {
+            // moved on, a new game, or the red dot came or went
+            horizon = tick + depth + window - 1;
+            windowStart = tick;
+            dotActive = engine.isRedDotActive();
+            salt = Zobrist.salt(horizon);
+            markRedDot(engine);
+            table.newSearch();
+        }
+        hash ^= salt;
+        rootOffset = (int) (tick - windowStart);
+        return bestMove((int) (horizon - tick));
+    }
+
+    /** Positions scored so far, including those found in the table. */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /** Positions found in the table. */
+    public long getHits() {
+        return hits;
+    }
+
+    private void copy(GameEngine engine) {
+        OccupancyGrid grid = engine.getGrid();
+        cols = engine.getCols();
+        rows = engine.getRows();
+        if (cells.length != cols * rows) {
+            cells = new byte[cols * rows];
+            dangerMark = new int[cols * rows];
+            dangerTicks = new long[cols * rows];
+            dangerSearch = 0;
+        }
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = grid.get(i);
+        }
+        body.clear();
+        for (int i = 0; i < engine.getLength(); i++) {
+            body.pushTail(grid.index(engine.getSegmentX(i), engine.getSegmentY(i)));
+        }
+        direction = engine.getDirection();
+        growing = Math.max(0, engine.getSize() - engine.getLength());
+        food = engine.getFoodX() >= 0 ? grid.index(engine.getFoodX(), engine.getFoodY()) : -1;
+        // the engine's hash without the red dot, which goes in the salt instead
+        hash = grid.getHash() ^ Zobrist.head(body.head()) ^ Zobrist.tail(body.tail())
+                ^ Zobrist.direction(direction) ^ Zobrist.growing(growing);
+    }
+
+    /** Marks where the red dots go from now to the horizon, and puts where they start in the salt. */
+    private void markRedDot(GameEngine engine) {
+        dangerSearch = dangerSearch == Integer.MAX_VALUE ? 1 : dangerSearch + 1;
+        if (dangerSearch == 1) {
+            Arrays.fill(dangerMark, 0);
+        }
+        Entities redDots = engine.getRedDots();
+        for (int i = 0; i < redDots.count(); i++) {
+            markRedDot(redDots.getX(i), redDots.getY(i), redDots.getDx(i), redDots.getDy(i));
+        }
+    }
+
+    private void markRedDot(int x, int y, int dx, int dy) {
+        salt ^= Zobrist.redDot(x, y, dx, dy);
+        for (int t = 1; t <= depth + window; t++) {
+            // moved and bounced off the edges the way the engine does it
+            x += dx;
+            y += dy;
+            if (x < 0 || x > cols * GameEngine.CELL - GameEngine.CELL) {
+                dx = -dx;
+            }
+            if (y < 0 || y > rows * GameEngine.CELL - GameEngine.CELL) {
+                dy = -dy;
+            }
+            int x0 = Math.floorDiv(x, GameEngine.CELL), y0 = Math.floorDiv(y, GameEngine.CELL);
+            int x1 = Math.floorDiv(x + GameEngine.CELL - 1, GameEngine.CELL);
+            int y1 = Math.floorDiv(y + GameEngine.CELL - 1, GameEngine.CELL);
+            for (int cy = Math.max(y0, 0); cy <= Math.min(y1, rows - 1); cy++) {
+                for (int cx = Math.max(x0, 0); cx <= Math.min(x1, cols - 1); cx++) {
+                    int cell = cy * cols + cx;
+                    if (dangerMark[cell] != dangerSearch) {
+                        dangerMark[cell] = dangerSearch;
+                        dangerTicks[cell] = 0;
+                    }
+                    // a tick either side, as the head and the dot both move between ticks
+                    dangerTicks[cell] |= 7L << (t - 1);
+                }
+            }
+        }
+    }
+
+    /** The first move of the best line {@code remaining} moves deep; the earliest direction wins ties. */
+    private int bestMove(int remaining) {
+        int best = direction, bestValue = Integer.MIN_VALUE;
+        for (int d = 0; d < 4; d++) {
+            if (d == GameEngine.opposite(direction)) {
+                continue;
+            }
+            int value = moveValue(d, 0, remaining);
+            if (value > bestValue) {
+                best = d;
+                bestValue = value;
+            }
+        }
+        return best;
+    }
+
+    /** Score of the position, looking {@code remaining} moves on. */
+    private int search(int ply, int remaining) {
+        nodes++;
+        if (remaining == 0) {
+            return food < 0 ? 0 : -distance(body.head(), food);
+        }
+        boolean useTable = remaining >= MIN_TABLE_DEPTH;
+        long key = hash ^ remainingKey[remaining];
+        long found = useTable ? table.probe(key) : TranspositionTable.MISS;
+        if (found != TranspositionTable.MISS && TranspositionTable.depth(found) == remaining) {
+            hits++;
+            return TranspositionTable.value(found);
+        }
+        int best = Integer.MIN_VALUE, bestMove = GameEngine.NONE;
+        for (int d = 0; d < 4; d++) {
+            if (d == GameEngine.opposite(direction)) {
+                continue;
+            }
+            int value = moveValue(d, ply, remaining);
+            if (value > best) {
+                best = value;
+                bestMove = d;
+            }
+        }
+        if (useTable) {
+            table.store(key, remaining, best, TranspositionTable.EXACT, bestMove);
+        }
+        return best;
+    }
+
+    /** Score of moving {@code d} with {@code remaining} moves to go, this one included. */
+    private int moveValue(int d, int ply, int remaining) {
+        if (!move(d, ply)) {
+            // the sooner the death the worse
+            return DEATH - remaining;
+        }
+        int value = search(ply + 1, remaining - 1);
+        if (ate[ply]) {
+            // the sooner the meal the better
+            value += FOOD + remaining;
+        }
+        undo(ply);
+        return value;
+    }
+
+    /** Moves the snake, returning false, with nothing to undo, if it dies. */
+    private boolean move(int d, int ply) {
+        int head = body.head();
+        int x = head % cols + STEP_X[d], y = head / cols + STEP_Y[d];
+        if (x < 0 || y < 0 || x >= cols || y >= rows) {
+            return false;
+        }
+        int next = y * cols + x;
+        if (dangerMark[next] == dangerSearch && (dangerTicks[next] >>> (rootOffset + ply + 1) & 1) != 0) {
+            return false;
+        }
+        savedHash[ply] = hash;
+        savedDirection[ply] = direction;
+        savedGrowing[ply] = growing;
+        savedTail[ply] = -1;
+        hash ^= Zobrist.direction(direction) ^ Zobrist.direction(d) ^ Zobrist.head(head) ^ Zobrist.head(next);
+        direction = d;
+        if (growing > 0) {
+            hash ^= Zobrist.growing(growing) ^ Zobrist.growing(growing - 1);
+            growing--;
+        } else {
+            // the tail leaves before the head arrives, as in the engine
+            int tail = body.popTail();
+            savedTail[ply] = tail;
+            hash ^= Zobrist.tail(tail) ^ Zobrist.tail(body.tail()) ^ Zobrist.flags(tail, OccupancyGrid.BODY);
+            cells[tail] &= ~OccupancyGrid.BODY;
+        }
+        if ((cells[next] & OccupancyGrid.BLOCKED) != 0) {
+            undoTail(ply);
+            return false;
+        }
+        body.pushHead(next);
+        cells[next] |= OccupancyGrid.BODY;
+        hash ^= Zobrist.flags(next, OccupancyGrid.BODY);
+        ate[ply] = next == food;
+        if (ate[ply]) {
+            // where the next food goes is anyone's guess, so the line goes on without any
+            cells[next] &= ~OccupancyGrid.FOOD;
+            hash ^= Zobrist.flags(next, OccupancyGrid.FOOD) ^ Zobrist.growing(growing) ^ Zobrist.growing(growing + 1);
+            growing++;
+            food = -1;
+        }
+        return true;
+    }
+
+    private void undo(int ply) {
+        int head = body.popHead();
+        cells[head] &= ~OccupancyGrid.BODY;
+        if (ate[ply]) {
+            cells[head] |= OccupancyGrid.FOOD;
+            food = head;
+        }
+        undoTail(ply);
+    }
+
+    private void undoTail(int ply) {
+        if (savedTail[ply] >= 0) {
+            body.pushTail(savedTail[ply]);
+            cells[savedTail[ply]] |= OccupancyGrid.BODY;
+        }
+        hash = savedHash[ply];
+        direction = savedDirection[ply];
+        growing = savedGrowing[ply];
+    }
+
+    private int distance(int from, int to) {
+        return Math.abs(from % cols - to % cols) + Math.abs(from / cols - to / cols);
+    }
+}
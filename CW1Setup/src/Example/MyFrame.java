@@ -6,8 +6,6 @@ import java.awt.event.KeyListener;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.awt.image.BufferedImage;
-import java.util.LinkedList;
-import java.util.List;
 
 import javax.swing.JFrame;
 import javax.swing.JPanel;
@@ -25,6 +23,8 @@ public class MyFrame extends JPanel implements KeyListener
 {
 	private static final long serialVersionUID = -3149926831770554380L;
 
+	static final int FRAME_WIDTH = 870, FRAME_HEIGHT = 560;
+
 	public JFrame jFrame = new JFrame();
 
 	public MyFrame()
@@ -42,7 +42,7 @@ public class MyFrame extends JPanel implements KeyListener
 		jFrame.addKeyListener(this);
 
 		jFrame.setTitle("Snakee Yipee");
-		jFrame.setSize(870, 560);
+		jFrame.setSize(FRAME_WIDTH, FRAME_HEIGHT);
 		jFrame.setLocationRelativeTo(null);
 		jFrame.addWindowListener(new WindowAdapter()// loka
 		{
@@ -106,11 +106,11 @@ public class MyFrame extends JPanel implements KeyListener
 		private int num; // ?
 		public int score = 0;
 
-		private static final BufferedImage IMG_SNAKE_HEAD = (BufferedImage) ImageUtil.images.get("snake-head-right");
+		private static final SnakeSprites SPRITES = SnakeSprites.shared();
 
-		public static List<Point> bodyPoints = new LinkedList<>();
+		private final TrailBuffer trail = new TrailBuffer();
 
-		private static BufferedImage newImgSnakeHead;
+		private BufferedImage newImgSnakeHead;
 		boolean up, down, left, right = true;
 
 		public MySnake(int x, int y)
@@ -129,7 +129,7 @@ public class MyFrame extends JPanel implements KeyListener
 			 * Attention : ?
 			 */
 			this.num = w / speed_XY;
-			newImgSnakeHead = IMG_SNAKE_HEAD;
+			newImgSnakeHead = SPRITES.head(GameEngine.RIGHT);
 
 		}
 
@@ -156,7 +156,7 @@ public class MyFrame extends JPanel implements KeyListener
 					left = false;
 					right = false;
 
-					newImgSnakeHead = (BufferedImage) GameUtil.rotateImage(IMG_SNAKE_HEAD, -90);
+					newImgSnakeHead = SPRITES.head(GameEngine.UP);
 				}
 				break;
 
@@ -168,7 +168,7 @@ public class MyFrame extends JPanel implements KeyListener
 					left = false;
 					right = false;
 
-					newImgSnakeHead = (BufferedImage) GameUtil.rotateImage(IMG_SNAKE_HEAD, 90);
+					newImgSnakeHead = SPRITES.head(GameEngine.DOWN);
 				}
 				break;
 
@@ -180,7 +180,7 @@ public class MyFrame extends JPanel implements KeyListener
 					left = true;
 					right = false;
 
-					newImgSnakeHead = (BufferedImage) GameUtil.rotateImage(IMG_SNAKE_HEAD, -180);
+					newImgSnakeHead = SPRITES.head(GameEngine.LEFT);
 
 				}
 				break;
@@ -193,7 +193,7 @@ public class MyFrame extends JPanel implements KeyListener
 					left = false;
 					right = true;
 
-					newImgSnakeHead = IMG_SNAKE_HEAD;
+					newImgSnakeHead = SPRITES.head(GameEngine.RIGHT);
 				}
 
 			default:
@@ -227,13 +227,16 @@ public class MyFrame extends JPanel implements KeyListener
 			outofBounds();
 			eatBody();
 
-			bodyPoints.add(new Point(x, y));
+			trail.add(x, y);
 
-			if (bodyPoints.size() == (this.length + 1) * num)
+			if (trail.size() == (this.length + 1) * num)
+			{
+				trail.removeOldest();
+			}
+			if (newImgSnakeHead != null)
 			{
-				bodyPoints.remove(0);
+				g.drawImage(newImgSnakeHead, x, y, null);
 			}
-			g.drawImage(newImgSnakeHead, x, y, null);
 			drawBody(g);
 
 			move();
@@ -241,33 +244,27 @@ public class MyFrame extends JPanel implements KeyListener
 
 		public void eatBody()
 		{
-			for (Point point : bodyPoints)
+			if (trail.crossesItself())
 			{
-				for (Point point2 : bodyPoints)
-				{
-					if (point.equals(point2) && point != point2)
-					{
-						this.l = false;
-					}
-				}
+				this.l = false;
 			}
 		}
 
 		public void drawBody(Graphics g)
 		{
-			int length = bodyPoints.size() - 1 - num;
+			// every num-th spot back from the head, skipping the newest and oldest num
+			int last = trail.size() - 1 - num;
 
-			for (int i = length; i >= num; i -= num)
+			for (int i = num; i <= last; i += num)
 			{
-				Point point = bodyPoints.get(i);
-				g.drawImage(this.i, point.x, point.y, null);
+				g.drawImage(this.i, trail.getX(i), trail.getY(i), null);
 			}
 		}
 
 		private void outofBounds()
 		{
-			boolean xOut = (x <= 0 || x >= (870 - w));
-			boolean yOut = (y <= 40 || y >= (560 - h));
+			boolean xOut = (x <= 0 || x >= (FRAME_WIDTH - w));
+			boolean yOut = (y <= 40 || y >= (FRAME_HEIGHT - h));
 			if (xOut || yOut)
 			{
 				l = false;
@@ -292,5 +289,13 @@ public class MyFrame extends JPanel implements KeyListener
 		{
 			return new Rectangle(x, y, w, h);
 		}
+
+		/** Same as comparing the two rectangles, without making them. */
+		public boolean intersects(SnakeObject other)
+		{
+			return w > 0 && h > 0 && other.w > 0 && other.h > 0
+					&& x < other.x + other.w && other.x < x + w
+					&& y < other.y + other.h && other.y < y + h;
+		}
 	}
 }
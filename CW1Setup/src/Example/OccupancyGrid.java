@@ -0,0 +1,99 @@
+package Example;
+
+import java.util.Arrays;
+
+/**
+ * One byte per board cell saying what is standing on it. The engine keeps
+ * it up to date as the head enters and the tail leaves, so asking whether
+ * a cell holds body, brick or food is a single array read instead of a
+ * scan over every segment and obstacle. It also keeps a
+ * {@link FreeCellSet} of the cells with nothing on them, for placing
+ * things at random, and a {@link Zobrist} hash of every flag on the board.
+ */
+public class OccupancyGrid {
+    public static final byte EMPTY = 0;
+    public static final byte BODY = 1;
+    public static final byte OBSTACLE = 2;
+    public static final byte FOOD = 4;
+
+    public static final byte BLOCKED = BODY | OBSTACLE;
+
+    private final int cols, rows;
+    private final byte[] cells;
+    private final FreeCellSet free;
+    private long hash;
+
+    public OccupancyGrid(int cols, int rows) {
+        this.cols = cols;
+        this.rows = rows;
+        this.cells = new byte[cols * rows];
+        this.free = new FreeCellSet(cols * rows);
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int index(int x, int y) {
+        return y * cols + x;
+    }
+
+    public boolean inside(int x, int y) {
+        return x >= 0 && y >= 0 && x < cols && y < rows;
+    }
+
+    public byte get(int x, int y) {
+        return cells[index(x, y)];
+    }
+
+    public byte get(int index) {
+        return cells[index];
+    }
+
+    public boolean has(int x, int y, int flags) {
+        return (cells[index(x, y)] & flags) != 0;
+    }
+
+    public void set(int x, int y, int flag) {
+        int i = index(x, y);
+        if (cells[i] == EMPTY && flag != EMPTY) {
+            free.remove(i);
+        }
+        hash ^= Zobrist.flags(i, flag & ~cells[i]);
+        cells[i] |= flag;
+    }
+
+    public void clear(int x, int y, int flag) {
+        int i = index(x, y);
+        hash ^= Zobrist.flags(i, flag & cells[i]);
+        cells[i] &= ~flag;
+        if (cells[i] == EMPTY) {
+            free.add(i);
+        }
+    }
+
+    public void clearAll() {
+        Arrays.fill(cells, EMPTY);
+        free.fill();
+        hash = 0;
+    }
+
+    /** The xor of {@link Zobrist#flags} over every cell, kept up to date by each set and clear. */
+    public long getHash() {
+        return hash;
+    }
+
+    /** See {@link FreeCellSet#sort}. */
+    public void sortFreeCells() {
+        free.sort(cells);
+    }
+
+    /** Cells with nothing on them; read only, the grid keeps it up to date. */
+    public FreeCellSet getFreeCells() {
+        return free;
+    }
+}
@@ -5,197 +5,191 @@ import java.awt.*;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.io.*;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Random;
-import java.util.Properties;
-import java.util.stream.Collectors;
+import java.util.concurrent.ThreadLocalRandom;
 import Example.ImageUtil;
 
 public class Play extends JFrame implements KeyListener {
     private JButton startButton, stopButton, pauseButton;
     private JPanel gamePanel;
     private Timer timer;
-
-    private boolean isRunning, isPaused;
-    private Snake snake;
-    private Food food;
+    private Canvas gameCanvas;
+    private GameLoop gameLoop;
+
+    private static final boolean ACTIVE_RENDERING = Boolean.getBoolean("snake.activeRendering");
+    private static final int TARGET_FPS = Integer.getInteger("snake.fps", 60);
+    // -Dsnake.record=<dir> saves every game there, -Dsnake.replay=<file> plays one back
+    private static final String RECORD_DIR = System.getProperty("snake.record");
+    private static final String REPLAY_FILE = System.getProperty("snake.replay");
+    // -Dsnake.world=<cells> plays on a world that many cells a side, scrolling with the head
+    private static final int WORLD_CELLS = Integer.getInteger("snake.world", 0);
+    // -Dsnake.hunters=<n> sets n hunters on the snake; such games are not recorded
+    private static final int HUNTERS = Integer.getInteger("snake.hunters", 0);
+    // -Dsnake.redDots=<n> brings the red dots n at a time; such games are not recorded either
+    private static final int RED_DOT_WAVE = Integer.getInteger("snake.redDots", 1);
+    private static final int BOARD_WIDTH = 800, BOARD_HEIGHT = 600;
+
+    private volatile boolean isRunning, isPaused;
+    private GameEngine engine;
+    private WorldEngine world;
+    private WorldRenderer worldRenderer;
     private final int DELAY = 100;
-    private Image backgroundImage, gameOverImage, startSceneImage;
+    private Image startSceneImage;
+    private SpriteAtlas atlas;
+    private BoardRenderer renderer;
+    private final DirtyRegions dirty = new DirtyRegions();
+    private ReplayWriter recorder;
+    private ReplayReader replay;
+    private static final int REPLAY_SEEK_TICKS = 300;
+
+    private final Profiler profiler = new Profiler();
+    private volatile boolean showProfiler;
+    private static final Font PROFILER_FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+    private static final Color PROFILER_BACKGROUND = new Color(0, 0, 0, 170);
+    private static final int PROFILER_WIDTH = 290, PROFILER_HEIGHT = 24 + Profiler.PHASES * 15;
+    private boolean firstFramePainted;
+    // F4 hands the snake to the autopilot and back; its turns are recorded like the player's
+    private final Autopilot autopilot = new Autopilot();
+    private volatile boolean autopilotOn;
 
-    private java.util.List<PlayerScore> highScore = new ArrayList<>();
     private static final String HIGH_SCORE_FILE = "highscores.properties";
+    private static final String SCORE_JOURNAL = "highscores.journal";
+    private final ScoreStore scores = new ScoreStore(Paths.get(SCORE_JOURNAL), Paths.get(HIGH_SCORE_FILE));
+    private boolean askedForName;
 
-    private java.util.List<Rectangle> obstacles;
     private int selectedLevel = 1;
-    private RedDot redDot;
-    private long lastRedDotSpawnTime = 0;
-    private long nextRedDotSpawnDelay;
-
-
-    class RedDot {
-        private Rectangle position;
-        private boolean isActive;
-        private Image redDotImage;
-        private long lastSpawnTime;
-        private static final long SPAWN_INTERVAL = 10000;
-        private int dx = 2;
-        private int dy = 2;
-
-        public RedDot() {
-            this.position = new Rectangle(0, 0, 20, 20);
-            this.isActive = false;
-            this.lastSpawnTime = System.currentTimeMillis();
-            this.redDotImage = ImageUtil.images.get("red-dot");
-        }
-
-        public void spawn(int x, int y) {
-            this.position.setLocation(x, y);
-            this.isActive = true;
-            this.lastSpawnTime = System.currentTimeMillis();
-        }
-
-        public void draw(Graphics g) {
-            if (isActive) {
-                g.drawImage(redDotImage, position.x, position.y, null);
-            }
-        }
-
-        public boolean isActive() {
-            return isActive;
-        }
-
-        public void update() {
-            if (isActive) {
-
-                position.x += dx;
-                position.y += dy;
-
-                if (position.x < 0 || position.x > gamePanel.getWidth() - position.width) {
-                    dx = -dx;
-                }
-                if (position.y < 0 || position.y > gamePanel.getHeight() - position.height) {
-                    dy = -dy;
-                }
-
-                if (System.currentTimeMillis() - lastSpawnTime > SPAWN_INTERVAL) {
-                    isActive = false;
-                }
-            }
-        }
-
-
-        public boolean checkCollision(Snake snake) {
-
-            return isActive && snake.getHead().intersects(position);
-        }
-
-        public void maybeSpawn() {
-            if (!isActive && (System.currentTimeMillis() - lastSpawnTime > SPAWN_INTERVAL)) {
-                Random rand = new Random();
-                int x = rand.nextInt(800 / 20) * 20;
-                int y = rand.nextInt(600 / 20) * 20;
-                spawn(x, y);
-            }
-        }
-    }
-
 
     public Play() {
-        redDot = new RedDot();
-        loadHighScore();
         initBackgroundImage();
         initializeUI();
         initializeGame();
 
     }
 
-    private void loadHighScore() {
-        Properties properties = new Properties();
-        try (InputStream input = new FileInputStream(HIGH_SCORE_FILE)) {
-            properties.load(input);
-            highScore = properties.stringPropertyNames().stream()
-                    .map(name -> new PlayerScore(name, Integer.parseInt(properties.getProperty(name))))
-                    .sorted()
-                    .collect(Collectors.toList());
-        } catch (IOException e) {
-            System.out.println("There is no High Scores");
-        }
-    }
-
-    private void saveHighScores() {
-        Properties properties = new Properties();
-        for (PlayerScore score : highScore) {
-            properties.setProperty(score.name, String.valueOf(score.score));
-        }
-        try (OutputStream output = new FileOutputStream(HIGH_SCORE_FILE)) {
-            properties.store(output, "High Score");
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-    }
-
+    /** Asks for a name once per game; runs on the EDT, never from a paint. */
     private void checkAndAddHighscore() {
-        if (!isRunning && snake.getScore() > 0) {
+        if (!isRunning && !askedForName && score() > 0 && REPLAY_FILE == null) {
+            askedForName = true;
             String playerName = JOptionPane.showInputDialog(this, "Enter your name:");
             if (playerName != null && !playerName.trim().isEmpty()) {
-                highScore.add(new PlayerScore(playerName, snake.getScore()));
-                Collections.sort(highScore);
-                if (highScore.size() > 10) {
-                    highScore.remove(highScore.size() - 1);
-                }
-                saveHighScores();
-                showHighScore();
+                ScoreStore.Score score = new ScoreStore.Score(playerName, score(), selectedLevel,
+                        System.currentTimeMillis());
+                scores.add(score);
+                showHighScore(score);
             }
         }
     }
 
-    private void showHighScore() {
-        String[] columnNames = {"Player's Name :", "Score"};
-        Object[][] data = new Object[highScore.size()][2];
-        for (int i = 0; i < highScore.size(); i++) {
-            data[i][0] = highScore.get(i).name;
-            data[i][1] = highScore.get(i).score;
-        }
+    /**
+     * Shows the leaderboard for any level and for this week or all time.
+     * The table asks for the rows it draws straight from the ranked lists,
+     * so it pages through any number of scores. {@code latest}, if not
+     * null, is the run just played and gets its rank shown.
+     */
+    private void showHighScore(ScoreStore.Score latest) {
+        Leaderboard board = scores.getLeaderboard();
+        JComboBox<String> levels = new JComboBox<>(new String[]{"All levels", "Level 1", "Level 2", "Level 3"});
+        JCheckBox thisWeek = new JCheckBox("This week");
+        JLabel rankLabel = new JLabel(" ");
+        if (latest != null) {
+            levels.setSelectedIndex(latest.level);
+        }
+
+        LeaderboardModel model = new LeaderboardModel();
+        Runnable choose = () -> {
+            int level = levels.getSelectedIndex();
+            long now = System.currentTimeMillis();
+            if (thisWeek.isSelected()) {
+                model.setList(level == 0 ? board.week(now) : board.levelWeek(level, now));
+            } else {
+                model.setList(level == 0 ? board.all() : board.level(level));
+            }
+            if (latest != null) {
+                rankLabel.setText(String.format("Your %d is #%d of %d, better than or equal to %.1f%%",
+                        latest.score, Leaderboard.rank(model.list, latest.score), model.list.size(),
+                        Leaderboard.percentile(model.list, latest.score)));
+            }
+        };
+        levels.addActionListener(e -> choose.run());
+        thisWeek.addActionListener(e -> choose.run());
+        choose.run();
 
-        JTable table = new JTable(data, columnNames);
+        JTable table = new JTable(model);
         JScrollPane scrollPane = new JScrollPane(table);
         table.setFillsViewportHeight(true);
 
         table.setFont(new Font("Arial", Font.PLAIN, 14));
         table.setRowHeight(24);
 
+        JPanel filters = new JPanel();
+        filters.add(levels);
+        filters.add(thisWeek);
+
         JDialog dialog = new JDialog(this, "High Scores", true);
-        dialog.add(scrollPane);
-        dialog.setSize(300, 200);
+        dialog.add(filters, BorderLayout.NORTH);
+        dialog.add(scrollPane, BorderLayout.CENTER);
+        dialog.add(rankLabel, BorderLayout.SOUTH);
+        dialog.setSize(420, 320);
         dialog.setLocationRelativeTo(this);
         dialog.setVisible(true);
     }
 
-    class PlayerScore implements Comparable<PlayerScore> {
-        String name;
-        int score;
+    private static class LeaderboardModel extends javax.swing.table.AbstractTableModel {
+        private static final long serialVersionUID = 7773803869320199517L;
 
-        PlayerScore(String name, int score) {
-            this.name = name;
-            this.score = score;
+        private static final String[] COLUMNS = {"Rank", "Player's Name :", "Score", "Level"};
+        RankedList<ScoreStore.Score> list;
+        private int cachedRow = -1;
+        private ScoreStore.Score cached;
+
+        void setList(RankedList<ScoreStore.Score> list) {
+            this.list = list;
+            cachedRow = -1;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return list.size();
         }
 
         @Override
-        public int compareTo(PlayerScore other) {
-            return Integer.compare(other.score, this.score);
+        public int getColumnCount() {
+            return COLUMNS.length;
         }
 
         @Override
-        public String toString() {
-            return name + ": " + score;
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            // a row's cells are asked for one after the other, so look each row up once
+            if (row != cachedRow) {
+                cached = list.get(row);
+                cachedRow = row;
+            }
+            switch (column) {
+                case 0:
+                    return row + 1;
+                case 1:
+                    return cached.name;
+                case 2:
+                    return cached.score;
+                default:
+                    return cached.level == 0 ? "" : cached.level;
+            }
         }
     }
 
     private void initBackgroundImage() {
-        backgroundImage = ImageUtil.images.get("UI-background");
-        gameOverImage = ImageUtil.images.get("game-scene-01");
         startSceneImage = ImageUtil.images.get("game-start-scene");
+        // the atlas needs every sprite, so build it once they have all streamed in
+        ImageUtil.allLoaded.thenRun(SpriteAtlas::shared);
     }
 
     private void initializeUI() {
@@ -212,33 +206,29 @@ public class Play extends JFrame implements KeyListener {
         buttonPanel.add(stopButton);
         buttonPanel.add(pauseButton);
 
-        gamePanel = new JPanel() {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-
-                if (isRunning) {
-                    g.drawImage(backgroundImage, 0, 0, this.getWidth(), this.getHeight(), this);
-                    snake.draw(g);
-                    food.draw(g);
-                    g.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 30));
-                    g.setColor(Color.MAGENTA);
-                    g.drawString("Score: " + snake.score, 20, 40);
-                    drawObstacles(g);
-                } else if (snake.getScore() > 0) {
-                    g.drawImage(gameOverImage, 0, 0, this.getWidth(), this.getHeight(), this);
-                    checkAndAddHighscore();
-                } else {
-                    g.drawImage(startSceneImage, 0, 0, this.getWidth(), this.getHeight(), this);
+        if (ACTIVE_RENDERING) {
+            // drawn by the game loop into the canvas' own buffers, never by Swing
+            gameCanvas = new Canvas();
+            gameCanvas.setIgnoreRepaint(true);
+            gameCanvas.setPreferredSize(new Dimension(BOARD_WIDTH, BOARD_HEIGHT));
+            gameCanvas.setFocusable(true);
+            gameCanvas.addKeyListener(this);
+            gamePanel = new JPanel(new BorderLayout());
+            gamePanel.add(gameCanvas, BorderLayout.CENTER);
+        } else {
+            gamePanel = new JPanel() {
+                @Override
+                protected void paintComponent(Graphics g) {
+                    if (!isRunning) {
+                        super.paintComponent(g);
+                    }
+                    drawFrame(g, this.getWidth(), this.getHeight(), 1);
                 }
-
-                redDot.draw(g);
-            }
-        };
-
-        gamePanel.setPreferredSize(new Dimension(800, 600));
-        gamePanel.setFocusable(true);
-        gamePanel.addKeyListener(this);
+            };
+            gamePanel.setPreferredSize(new Dimension(BOARD_WIDTH, BOARD_HEIGHT));
+            gamePanel.setFocusable(true);
+            gamePanel.addKeyListener(this);
+        }
 
         this.add(gamePanel, BorderLayout.CENTER);
         this.add(buttonPanel, BorderLayout.SOUTH);
@@ -247,38 +237,104 @@ public class Play extends JFrame implements KeyListener {
         this.setVisible(true);
     }
 
-    private void initializeGame() {
-        snake = new Snake();
-        food = new Food();
-
-        isRunning = false;
-        isPaused = false;
+    /**
+     * Draws one frame. {@code alpha} is how far we are from the last tick
+     * to the next one; the Swing timer always paints right after a tick so
+     * it passes 1, the game loop passes whatever fraction has gone by.
+     */
+    private void drawFrame(Graphics g, int width, int height, double alpha) {
+        long paintStart = System.nanoTime();
+        if (isRunning && world != null) {
+            worldRenderer.draw(g, gameView().getGraphicsConfiguration(), world,
+                    SpriteAtlas.BRICK + selectedLevel - 1, width, height, alpha);
+        } else if (isRunning) {
+            renderer.draw(g, gameView().getGraphicsConfiguration(), engine,
+                    SpriteAtlas.BRICK + selectedLevel - 1, width, height, alpha);
+        } else if (score() > 0) {
+            atlas.draw(g, SpriteAtlas.GAME_OVER, 0, 0, width, height);
+        } else {
+            g.drawImage(startSceneImage, 0, 0, width, height, null);
+        }
 
-        timer = new Timer(DELAY, e -> gameUpdate());
-        timer.start();
+        profiler.record(Profiler.PAINT, System.nanoTime() - paintStart);
+        if (showProfiler) {
+            drawProfiler(g, width);
+        }
+        reportFirstFrame();
+    }
 
-        resetRedDotSpawnTimer();
-        selectLevel();
+    /** F3 overlay: p50, p99 and max of each phase over the last couple of seconds. */
+    private void drawProfiler(Graphics g, int width) {
+        int x = width - PROFILER_WIDTH - 10, y = 10;
+        g.setColor(PROFILER_BACKGROUND);
+        g.fillRect(x, y, PROFILER_WIDTH, PROFILER_HEIGHT);
+        g.setFont(PROFILER_FONT);
+        g.setColor(Color.WHITE);
+        g.drawString(String.format("%-10s %8s %8s %8s", "µs", "p50", "p99", "max"), x + 8, y + 16);
+        for (int phase = 0; phase < Profiler.PHASES; phase++) {
+            g.drawString(String.format("%-10s %8.1f %8.1f %8.1f", Profiler.NAMES[phase],
+                    profiler.shown(phase, Profiler.P50) / 1e3,
+                    profiler.shown(phase, Profiler.P99) / 1e3,
+                    profiler.shown(phase, Profiler.MAX) / 1e3), x + 8, y + 31 + phase * 15);
+        }
     }
 
-    private void resetRedDotSpawnTimer() {
-        Random rand = new Random();
-        nextRedDotSpawnDelay = 10000 + rand.nextInt(20000);
-        lastRedDotSpawnTime = System.currentTimeMillis();
+    private void reportFirstFrame() {
+        if (!firstFramePainted) {
+            firstFramePainted = true;
+            if (Boolean.getBoolean("snake.assetReport")) {
+                long sinceStart = System.currentTimeMillis()
+                        - java.lang.management.ManagementFactory.getRuntimeMXBean().getStartTime();
+                System.out.println("First frame painted " + sinceStart + " ms after JVM start");
+            }
+        }
     }
 
-    private void maybeSpawnRedDot() {
-        long currentTime = System.currentTimeMillis();
-        if (currentTime - lastRedDotSpawnTime >= nextRedDotSpawnDelay) {
-            Random rand = new Random();
-            int startX = rand.nextInt(gamePanel.getWidth());
-            int startY = rand.nextInt(gamePanel.getHeight());
-            int targetX = rand.nextInt(gamePanel.getWidth());
-            int targetY = rand.nextInt(gamePanel.getHeight());
+    private void initializeGame() {
+        int cols = BOARD_WIDTH / GameEngine.CELL, rows = BOARD_HEIGHT / GameEngine.CELL;
+        if (RECORD_DIR != null || REPLAY_FILE != null) {
+            // game time has to come from the ticks for the game to play the same again
+            engine = new GameEngine(cols, rows, new GameRandom(), DELAY);
+        } else {
+            engine = new GameEngine(cols, rows);
+        }
+        engine.setProfiler(profiler);
+        if (REPLAY_FILE == null) {
+            // replays were recorded without hunters, one red dot at a time
+            engine.setHunters(HUNTERS);
+            engine.setRedDotWave(RED_DOT_WAVE);
+        }
+        if (WORLD_CELLS > 0) {
+            int side = Math.min(WORLD_CELLS, ChunkedWorld.MAX_SIDE);
+            world = new WorldEngine(new ChunkedWorld(side, side, ThreadLocalRandom.current().nextLong(), 1),
+                    new Random());
+            world.setProfiler(profiler);
+        }
+
+        isRunning = false;
+        isPaused = false;
 
-            redDot.spawn(startX,startY);
-            resetRedDotSpawnTimer();
+        if (ACTIVE_RENDERING) {
+            gameLoop = new GameLoop(gameCanvas, new GameLoop.Game() {
+                @Override
+                public void update() {
+                    gameUpdate();
+                }
+
+                @Override
+                public void render(Graphics2D g, int width, int height, double alpha) {
+                    synchronized (engine) {
+                        drawFrame(g, width, height, alpha);
+                    }
+                }
+            }, DELAY, TARGET_FPS);
+            gameLoop.start();
+        } else {
+            timer = new Timer(DELAY, e -> gameUpdate());
+            timer.start();
         }
+
+        selectLevel();
     }
 
     private void selectLevel() {
@@ -288,257 +344,302 @@ public class Play extends JFrame implements KeyListener {
 
         if (choice != -1) {
             selectedLevel = choice + 1;
-            loadObstaclesForLevel(selectedLevel);
+            engine.loadLevel(selectedLevel);
+            if (world != null) {
+                world.loadLevel(selectedLevel);
+            }
         } else {
             System.exit(0);
         }
     }
 
-    private void loadObstaclesForLevel(int level) {
-        obstacles = new ArrayList<>();
-        Random random = new Random();
-        int numberOfObstacles = 8;
-        int minDistanceFromSnake = 100;
-
-        while (obstacles.size() < numberOfObstacles) {
-            int x = random.nextInt(800 / 20) * 20;
-            int y = random.nextInt(600 / 20) * 20;
-
-            if (Math.abs(x - snake.getHead().x) > minDistanceFromSnake &&
-                    Math.abs(y - snake.getHead().y) > minDistanceFromSnake) {
-
-                Rectangle newObstacle = new Rectangle(x, y, 20, 20);
-                boolean collides = false;
-
-                for (Rectangle existingObstacle : obstacles) {
-                    if (newObstacle.intersects(existingObstacle)) {
-                        collides = true;
-                        break;
+    /** Runs on the Swing timer, or on the game loop's thread in active rendering mode. */
+    private void gameUpdate() {
+        if (world != null) {
+            worldUpdate();
+            return;
+        }
+        if (isRunning && !isPaused) {
+            if (gameLoop == null) {
+                markMovingParts();
+            }
+            GameEngine.Outcome outcome;
+            synchronized (engine) {
+                if (replay != null && !feedReplay()) {
+                    outcome = GameEngine.Outcome.RUNNING;
+                    isRunning = false;
+                } else {
+                    if (autopilotOn && replay == null) {
+                        steer(autopilot.decide(engine));
                     }
+                    outcome = engine.step(GameEngine.NONE);
                 }
-
-                if (!collides) {
-                    obstacles.add(newObstacle);
+                if (outcome.isDeath()) {
+                    endRecording(outcome);
+                } else if (recorder != null) {
+                    try {
+                        recorder.stepped(engine);
+                    } catch (IOException e) {
+                        e.printStackTrace();
+                        endRecording(GameEngine.Outcome.RUNNING);
+                    }
+                }
+            }
+            profiler.endTick();
+            profiler.probeEventQueue();
+            if (outcome == GameEngine.Outcome.HIT_WALL) {
+                isRunning = false;
+                // after this tick's repaint, so the game over screen is up behind the dialog
+                SwingUtilities.invokeLater(this::checkAndAddHighscore);
+            } else if (outcome.isDeath()) {
+                isRunning = false;
+                onEventThread(this::stopGame);
+            }
+            if (gameLoop == null) {
+                if (isRunning) {
+                    markMovingParts();
+                    dirty.paint(gamePanel);
+                } else {
+                    dirty.clear();
+                    gamePanel.repaint();
                 }
             }
         }
     }
 
-    private void checkCollisionWithObstacles() {
-        Rectangle snakeHead = snake.getHead();
-        for (Rectangle obstacle : obstacles) {
-            Rectangle hitbox = new Rectangle(
-                    obstacle.x - 1,
-                    obstacle.y - 1,
-                    obstacle.width + 2,
-                    obstacle.height + 2
-            );
-
-            if (snakeHead.intersects(obstacle)) {
+    /** The large world scrolls every tick, so the whole view is repainted. */
+    private void worldUpdate() {
+        if (isRunning && !isPaused) {
+            GameEngine.Outcome outcome;
+            synchronized (engine) {
+                outcome = world.step();
+            }
+            profiler.endTick();
+            profiler.probeEventQueue();
+            if (outcome.isDeath()) {
                 isRunning = false;
-                stopGame();
-                checkAndAddHighscore();
-                return;
+                SwingUtilities.invokeLater(this::checkAndAddHighscore);
+            }
+            if (gameLoop == null) {
+                gamePanel.repaint();
             }
         }
     }
 
-    private void drawObstacles(Graphics g) {
-        for (Rectangle obstacle : obstacles) {
-            Image obstacleImage = ImageUtil.images.get("brick-" + selectedLevel);
-            g.drawImage(obstacleImage, obstacle.x, obstacle.y, this);
-        }
+    private int score() {
+        return world != null ? world.getScore() : engine.getScore();
     }
 
-    private void gameUpdate() {
-        if (isRunning && !isPaused) {
-            snake.move();
-            checkCollision();
-            checkCollisionWithObstacles();
-            maybeSpawnRedDot();
-            redDot.update();
-            checkRedDotCollision();
-            gamePanel.repaint();
+    /** Marks what a tick can change, plus the profiler overlay while it is showing. */
+    private void markMovingParts() {
+        renderer.markMovingParts(engine, dirty);
+        if (showProfiler) {
+            dirty.add(gamePanel.getWidth() - PROFILER_WIDTH - 10, 10, PROFILER_WIDTH, PROFILER_HEIGHT);
         }
-        /*if (!isRunning) {
-            checkAndAddHighscore();
-        }*/
     }
 
-    private void checkRedDotCollision() {
-        if (redDot.isActive() && redDot.checkCollision(snake)) {
-            isRunning = false;
-            redDot.isActive = false;
-            stopGame();
+    private static void onEventThread(Runnable task) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            task.run();
+        } else {
+            SwingUtilities.invokeLater(task);
         }
     }
 
-    private void startGame() {
-        isRunning = true;
-        isPaused = false;
-        snake.reset();
-        gamePanel.requestFocusInWindow();
-        resetRedDotSpawnTimer();
+    private Component gameView() {
+        return gameCanvas != null ? gameCanvas : gamePanel;
     }
 
-    private void stopGame() {
-        checkAndAddHighscore();
-        isRunning = false;
-        snake.reset();
-        redDot.isActive=false;
-        SwingUtilities.invokeLater(() -> gamePanel.requestFocusInWindow());
-    }
-
-    private void pauseGame() {
-        if (isRunning) {
-            isPaused = !isPaused;
+    /** Hands the engine this tick's recorded turns; false once the recording is over. */
+    private boolean feedReplay() {
+        try {
+            if (replay.feed(engine)) {
+                return true;
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
         }
+        closeReplay();
+        return false;
     }
 
-    private void checkCollision() {
-        if (snake.getHead().intersects(food.getPosition())) {
-            snake.grow();
-            food.reposition();
-        }
-        if (snake.checkCollision()) {
-            isRunning = false;
-            stopGame();
+    private void closeReplay() {
+        if (replay != null) {
+            try {
+                replay.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            replay = null;
         }
     }
 
-    @Override
-    public void keyPressed(KeyEvent e) {
-        snake.keyPressed(e);
-    }
-
-    @Override
-    public void keyReleased(KeyEvent e) {
-    }
-
-    @Override
-    public void keyTyped(KeyEvent e) {
+    private void endRecording(GameEngine.Outcome outcome) {
+        if (recorder != null) {
+            try {
+                recorder.end(engine.getTick(), engine.getScore(), outcome);
+                recorder.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            recorder = null;
+        }
     }
 
-    public static void main(String[] args) {
-        SwingUtilities.invokeLater(() -> new Play());
+    private void startGame() {
+        if (atlas == null) {
+            atlas = SpriteAtlas.shared();
+            renderer = new BoardRenderer(atlas);
+            worldRenderer = new WorldRenderer(atlas);
+        }
+        synchronized (engine) {
+            endRecording(GameEngine.Outcome.RUNNING);
+            closeReplay();
+            if (world != null) {
+                world.reset();
+            } else if (REPLAY_FILE != null) {
+                startReplay();
+            } else if (RECORD_DIR != null && HUNTERS == 0 && RED_DOT_WAVE <= 1) {
+                startRecording();
+            } else {
+                engine.reset();
+            }
+        }
+        isPaused = false;
+        isRunning = true;
+        askedForName = false;
+        renderer.forgetScore();
+        gamePanel.repaint();
+        gameView().requestFocusInWindow();
     }
 
-    class Snake {
-        private ArrayList<Rectangle> body;
-        private int direction = KeyEvent.VK_RIGHT;
-        private int size = 3;
-        private int score = 0;
-        private Image headImage, bodyImage;
-
-        public Snake() {
-            loadImages();
-            reset();
+    private void startReplay() {
+        try {
+            replay = ReplayReader.open(Paths.get(REPLAY_FILE));
+            selectedLevel = replay.getReplay().getLevel();
+            engine.restart(replay.getReplay().getSeed(), selectedLevel);
+        } catch (IOException e) {
+            e.printStackTrace();
+            engine.reset();
         }
+    }
 
-        private void loadImages() {
-            headImage = ImageUtil.images.get("snake-head-right");
-            bodyImage = ImageUtil.images.get("snake-body");
+    private void startRecording() {
+        long seed = ThreadLocalRandom.current().nextLong();
+        engine.restart(seed, selectedLevel);
+        try {
+            Path dir = Files.createDirectories(Paths.get(RECORD_DIR));
+            recorder = ReplayWriter.create(dir.resolve("snake-" + System.currentTimeMillis() + Replay.EXTENSION),
+                    new Replay(engine.getCols(), engine.getRows(), DELAY, selectedLevel, seed));
+        } catch (IOException e) {
+            e.printStackTrace();
         }
+    }
 
-        public void reset() {
-            body = new ArrayList<>();
-            size = 3;
-            score = 0;
-            for (int i = 0; i < size; i++) {
-                body.add(new Rectangle(300 - i * 20, 300, 20, 20));
-            }
-            direction = KeyEvent.VK_RIGHT;
-        }
-
-        public void move() {
-            Rectangle head = new Rectangle(body.get(0));
-            switch (direction) {
-                case KeyEvent.VK_UP:
-                    head.y -= 20;
-                    break;
-                case KeyEvent.VK_DOWN:
-                    head.y += 20;
-                    break;
-                case KeyEvent.VK_LEFT:
-                    head.x -= 20;
-                    break;
-                case KeyEvent.VK_RIGHT:
-                    head.x += 20;
-                    break;
-            }
-            if (head.x < 0 || head.y < 0 || head.x >= gamePanel.getWidth() || head.y >= gamePanel.getHeight()) {
-                isRunning = false;
-                return;
-            }
-            body.add(0, head);
-            if (body.size() > size) {
-                body.remove(body.size() - 1);
+    private void stopGame() {
+        checkAndAddHighscore();
+        isRunning = false;
+        synchronized (engine) {
+            endRecording(GameEngine.Outcome.RUNNING);
+            closeReplay();
+            engine.reset();
+            if (world != null) {
+                world.reset();
             }
         }
+        gamePanel.repaint();
+        SwingUtilities.invokeLater(() -> gameView().requestFocusInWindow());
+    }
 
-        public void grow() {
-            size++;
-            score += 10;
-            food.reposition();
+    private void pauseGame() {
+        if (isRunning) {
+            isPaused = !isPaused;
         }
+    }
 
-        public void draw(Graphics g) {
-            for (int i = 0; i < body.size(); i++) {
-                Image image = i == 0 ? headImage : bodyImage;
-                g.drawImage(image, body.get(i).x, body.get(i).y, null);
-            }
+    @Override
+    public void keyPressed(KeyEvent e) {
+        if (e.getKeyCode() == KeyEvent.VK_F3) {
+            showProfiler = !showProfiler;
+            gamePanel.repaint();
+            return;
         }
-
-        public Rectangle getHead() {
-            return body.get(0);
+        if (e.getKeyCode() == KeyEvent.VK_F4) {
+            autopilotOn = !autopilotOn;
+            return;
         }
-
-        public boolean checkCollision() {
-            for (int i = 1; i < body.size(); i++) {
-                if (body.get(i).intersects(getHead())) {
-                    isRunning = false;
-                    stopGame(); // Oyunu durdur ve skor tablosunu göster
-                    return true;
-                }
+        synchronized (engine) {
+            if (replay != null) {
+                seekReplay(e.getKeyCode());
+            } else {
+                turn(e.getKeyCode());
             }
-            return false;
         }
+    }
 
-        public void keyPressed(KeyEvent e) {
-            if ((e.getKeyCode() == KeyEvent.VK_LEFT && direction != KeyEvent.VK_RIGHT) ||
-                    (e.getKeyCode() == KeyEvent.VK_RIGHT && direction != KeyEvent.VK_LEFT) ||
-                    (e.getKeyCode() == KeyEvent.VK_UP && direction != KeyEvent.VK_DOWN) ||
-                    (e.getKeyCode() == KeyEvent.VK_DOWN && direction != KeyEvent.VK_UP)) {
-                direction = e.getKeyCode();
-            }
+    /** While watching a replay the left and right arrows jump back and forward. */
+    private void seekReplay(int keyCode) {
+        long target;
+        if (keyCode == KeyEvent.VK_LEFT) {
+            target = Math.max(0, engine.getTick() - REPLAY_SEEK_TICKS);
+        } else if (keyCode == KeyEvent.VK_RIGHT) {
+            target = engine.getTick() + REPLAY_SEEK_TICKS;
+        } else {
+            return;
         }
-
-        public int getScore() {
-            return score;
+        try {
+            replay.seek(engine, target);
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            closeReplay();
         }
+        renderer.forgetScore();
+        gamePanel.repaint();
     }
 
-    class Food {
-        private Rectangle position;
-        private Image foodImage;
-        private Random rand = new Random();
-
-        public Food() {
-            reposition();
+    private void turn(int keyCode) {
+        int direction;
+        switch (keyCode) {
+            case KeyEvent.VK_UP:
+                direction = GameEngine.UP;
+                break;
+            case KeyEvent.VK_DOWN:
+                direction = GameEngine.DOWN;
+                break;
+            case KeyEvent.VK_LEFT:
+                direction = GameEngine.LEFT;
+                break;
+            case KeyEvent.VK_RIGHT:
+                direction = GameEngine.RIGHT;
+                break;
+            default:
+                return;
         }
+        steer(direction);
+    }
 
-        public void reposition() {
-            String key = String.valueOf(rand.nextInt(17));
-            foodImage = ImageUtil.images.get(key);
-            position = new Rectangle(rand.nextInt(800 / 20) * 20, rand.nextInt(600 / 20) * 20, 20, 20);
+    private void steer(int direction) {
+        if (world != null) {
+            world.turn(direction);
+        } else if (engine.turn(direction) && recorder != null) {
+            try {
+                recorder.turn(engine.getTick(), direction);
+            } catch (IOException e) {
+                e.printStackTrace();
+                endRecording(GameEngine.Outcome.RUNNING);
+            }
         }
+    }
 
-        public void draw(Graphics g) {
-            g.drawImage(foodImage, position.x, position.y, null);
-        }
+    @Override
+    public void keyReleased(KeyEvent e) {
+    }
 
-        public Rectangle getPosition() {
-            return position;
-        }
+    @Override
+    public void keyTyped(KeyEvent e) {
+    }
+
+    public static void main(String[] args) {
+        SwingUtilities.invokeLater(() -> new Play());
     }
 }
\ No newline at end of file
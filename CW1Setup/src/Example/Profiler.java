@@ -0,0 +1,184 @@
+package Example;
+
+import javax.swing.SwingUtilities;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Where the time goes in a tick and a frame. Every phase gets a
+ * {@link LatencyHistogram}; every few seconds the p50, p99 and max of the
+ * window are copied out for the overlay to show and the histograms start
+ * over. Each tick and each paint is also sent to JDK Flight Recorder as a
+ * {@code snake.Tick} or {@code snake.Phase} event, which cost nothing
+ * unless a recording has them enabled.
+ *
+ * Timings are recorded from the thread that runs the game, which is the
+ * only one to touch the histograms; the Swing event queue's delay is
+ * measured on the event thread and handed over. The overlay reads the
+ * copied-out numbers from wherever it paints.
+ */
+public class Profiler {
+    public static final int MOVE = 0;
+    public static final int COLLISION = 1;
+    public static final int RED_DOT = 2;
+    public static final int OBSTACLE = 3;
+    public static final int PAINT = 4;
+    public static final int EDT_DELAY = 5;
+    public static final int PHASES = 6;
+
+    public static final String[] NAMES = {"move", "collision", "red dot", "obstacle", "paint", "EDT delay"};
+
+    public static final int P50 = 0, P99 = 1, MAX = 2;
+
+    private static final long WINDOW = 2_000_000_000L;
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[PHASES];
+    private final long[] thisTick = new long[PAINT];
+    private final long[][] shown = new long[PHASES][3];
+    private long windowStart = System.nanoTime();
+
+    private final QueueProbe probe = new QueueProbe();
+
+    public Profiler() {
+        for (int i = 0; i < PHASES; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    /** Records the time since {@code start} against {@code phase} and returns now, for the next lap. */
+    public long lap(int phase, long start) {
+        long now = System.nanoTime();
+        record(phase, now - start);
+        return now;
+    }
+
+    public void record(int phase, long nanos) {
+        histograms[phase].record(nanos);
+        if (phase < PAINT) {
+            thisTick[phase] += nanos;
+        } else {
+            PhaseEvent event = new PhaseEvent();
+            if (event.isEnabled()) {
+                event.phase = NAMES[phase];
+                event.time = nanos;
+                event.commit();
+            }
+        }
+    }
+
+    /** Call once the engine has finished a tick, from the thread that runs the game. */
+    public void endTick() {
+        long delay = probe.take();
+        if (delay >= 0) {
+            record(EDT_DELAY, delay);
+        }
+        TickEvent event = new TickEvent();
+        if (event.isEnabled()) {
+            event.move = thisTick[MOVE];
+            event.collision = thisTick[COLLISION];
+            event.redDot = thisTick[RED_DOT];
+            event.obstacle = thisTick[OBSTACLE];
+            event.commit();
+        }
+        for (int i = MOVE; i <= OBSTACLE; i++) {
+            thisTick[i] = 0;
+        }
+
+        long now = System.nanoTime();
+        if (now - windowStart >= WINDOW) {
+            windowStart = now;
+            for (int i = 0; i < PHASES; i++) {
+                LatencyHistogram h = histograms[i];
+                shown[i][P50] = h.percentile(0.5);
+                shown[i][P99] = h.percentile(0.99);
+                shown[i][MAX] = h.max();
+                h.clear();
+            }
+        }
+    }
+
+    /**
+     * Posts a marker onto the Swing event queue, unless the last one is
+     * still waiting or its delay has not been recorded yet. The next
+     * {@link #endTick} after it runs records how long it sat there.
+     */
+    public void probeEventQueue() {
+        probe.post();
+    }
+
+    /** The last window's {@link #P50}, {@link #P99} or {@link #MAX} for a phase, in nanoseconds. */
+    public long shown(int phase, int which) {
+        return shown[phase][which];
+    }
+
+    /** Only the game's thread posts and takes; the event thread just leaves the delay behind. */
+    private static class QueueProbe implements Runnable {
+        private volatile long postedAt;
+        private volatile long delay = -1;
+        private boolean pending;
+
+        void post() {
+            if (!pending) {
+                pending = true;
+                postedAt = System.nanoTime();
+                SwingUtilities.invokeLater(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            delay = System.nanoTime() - postedAt;
+        }
+
+        /** The delay of the marker that last ran, once, or -1 if it has not run. */
+        long take() {
+            long taken = delay;
+            if (taken >= 0) {
+                delay = -1;
+                pending = false;
+            }
+            return taken;
+        }
+    }
+
+    @Name("snake.Tick")
+    @Label("Snake Tick")
+    @Category("Snake")
+    @Description("Time spent in each phase of one game tick")
+    public static class TickEvent extends Event {
+        @Label("Move")
+        @Timespan
+        long move;
+
+        @Label("Collision")
+        @Timespan
+        long collision;
+
+        @Label("Red Dot")
+        @Timespan
+        long redDot;
+
+        @Label("Obstacle")
+        @Timespan
+        long obstacle;
+    }
+
+    @Name("snake.Phase")
+    @Label("Snake Phase")
+    @Category("Snake")
+    @Description("One paint or one wait on the Swing event queue")
+    public static class PhaseEvent extends Event {
+        @Label("Phase")
+        String phase;
+
+        // not "duration", which every event already has for itself
+        @Label("Time")
+        @Timespan
+        long time;
+    }
+}
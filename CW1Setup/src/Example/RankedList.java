@@ -0,0 +1,179 @@
+package Example;
+
+import java.util.Comparator;
+import java.util.function.Consumer;
+
+/**
+ * A sorted list that finds an item's position and the item at a position
+ * in O(log n), an indexable skip list. Each link remembers how many items
+ * it jumps over, so walking down the levels adds up the position as it
+ * goes. Equal items keep the order they were added in.
+ *
+ * Items added in sorted order, as when loading a sorted file, are linked
+ * straight onto the end without a search.
+ */
+public class RankedList<T> {
+    private static final int MAX_LEVEL = 16;
+    private static final RankedList<?> EMPTY = new RankedList<>((a, b) -> 0);
+
+    private static final class Node<T> {
+        final T value;
+        final Node<T>[] next;
+        final int[] width;
+
+        @SuppressWarnings("unchecked")
+        Node(T value, int levels) {
+            this.value = value;
+            this.next = (Node<T>[]) new Node<?>[levels];
+            this.width = new int[levels];
+        }
+    }
+
+    private final Comparator<? super T> order;
+    private final Node<T> head = new Node<>(null, MAX_LEVEL);
+    // the last node on each level, and its position, for adding at the end
+    @SuppressWarnings("unchecked")
+    private final Node<T>[] tail = (Node<T>[]) new Node<?>[MAX_LEVEL];
+    private final int[] tailIndex = new int[MAX_LEVEL];
+    private int levels = 1;
+    private int size;
+    private long seed = 0x9E3779B97F4A7C15L;
+
+    @SuppressWarnings("unchecked")
+    private final Node<T>[] update = (Node<T>[]) new Node<?>[MAX_LEVEL];
+    private final int[] updateIndex = new int[MAX_LEVEL];
+
+    public RankedList(Comparator<? super T> order) {
+        this.order = order;
+        for (int i = 0; i < MAX_LEVEL; i++) {
+            tail[i] = head;
+            tailIndex[i] = -1;
+        }
+    }
+
+    /** One list, shared by everyone, that is always empty and cannot be added to. */
+    @SuppressWarnings("unchecked")
+    public static <T> RankedList<T> empty() {
+        return (RankedList<T>) EMPTY;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void add(T value) {
+        if (this == EMPTY) {
+            throw new UnsupportedOperationException("The shared empty list cannot be added to");
+        }
+        int level = randomLevel();
+        if (level > levels) {
+            levels = level;
+        }
+        if (size == 0 || order.compare(tail[0].value, value) <= 0) {
+            link(value, level, tail, tailIndex, size);
+        } else {
+            int index = findBefore(value, true);
+            link(value, level, update, updateIndex, index);
+        }
+        size++;
+    }
+
+    /**
+     * Links a new node in at {@code index}, after {@code before[i]} on each
+     * of its levels, and widens the links it passes under.
+     */
+    private void link(T value, int level, Node<T>[] before, int[] beforeIndex, int index) {
+        Node<T> node = new Node<>(value, level);
+        for (int i = 0; i < levels; i++) {
+            Node<T> prev = before[i];
+            if (i < level) {
+                node.next[i] = prev.next[i];
+                node.width[i] = prev.next[i] == null ? 0 : prev.width[i] - (index - beforeIndex[i]) + 1;
+                prev.next[i] = node;
+                prev.width[i] = index - beforeIndex[i];
+            } else if (prev.next[i] != null) {
+                prev.width[i]++;
+            }
+        }
+        for (int i = 0; i < levels; i++) {
+            if (i < level && node.next[i] == null) {
+                tail[i] = node;
+                tailIndex[i] = index;
+            } else if (tailIndex[i] >= index) {
+                tailIndex[i]++;
+            }
+        }
+    }
+
+    /**
+     * Walks down to the last node that comes before {@code value}, or
+     * before or equal to it when {@code afterEqual}, filling in
+     * {@link #update} on the way. Returns the position just after it.
+     */
+    private int findBefore(T value, boolean afterEqual) {
+        Node<T> node = head;
+        int index = -1;
+        for (int i = levels - 1; i >= 0; i--) {
+            while (node.next[i] != null) {
+                int c = order.compare(node.next[i].value, value);
+                if (c < 0 || (afterEqual && c == 0)) {
+                    index += node.width[i];
+                    node = node.next[i];
+                } else {
+                    break;
+                }
+            }
+            update[i] = node;
+            updateIndex[i] = index;
+        }
+        return index + 1;
+    }
+
+    /** How many items come strictly before {@code value}; its best position if it were added. */
+    public int rank(T value) {
+        return findBefore(value, false);
+    }
+
+    /** The item at {@code index}, 0 being the first. */
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " of " + size);
+        }
+        Node<T> node = head;
+        int at = -1;
+        for (int i = levels - 1; i >= 0; i--) {
+            while (node.next[i] != null && at + node.width[i] <= index) {
+                at += node.width[i];
+                node = node.next[i];
+            }
+        }
+        return node.value;
+    }
+
+    /** Calls {@code visitor} with up to {@code count} items from {@code from} on, in order. */
+    public void forEach(int from, int count, Consumer<? super T> visitor) {
+        if (from >= size || count <= 0) {
+            return;
+        }
+        Node<T> node = head;
+        int at = -1;
+        for (int i = levels - 1; i >= 0; i--) {
+            while (node.next[i] != null && at + node.width[i] <= from) {
+                at += node.width[i];
+                node = node.next[i];
+            }
+        }
+        for (; node != null && count > 0; node = node.next[0], count--) {
+            visitor.accept(node.value);
+        }
+    }
+
+    /** One more level with chance 1/4, which keeps the nodes small. */
+    private int randomLevel() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 7;
+        seed ^= seed << 17;
+        int level = 1 + Long.numberOfTrailingZeros(seed | (1L << 62)) / 2;
+        return Math.min(level, MAX_LEVEL);
+    }
+}
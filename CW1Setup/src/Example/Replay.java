@@ -0,0 +1,177 @@
+package Example;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A recorded game. A game played on a {@link GameEngine} with a tick clock
+ * depends only on its seed, its level and the turns the player made, so
+ * that is all a replay file holds:
+ *
+ * <pre>
+ * int     magic "SNKR"
+ * byte    format version
+ * varint  cols, rows, milliseconds per tick, level
+ * long    seed
+ * varint  events, each (ticks since the last event &lt;&lt; 3 | code)
+ * </pre>
+ *
+ * Codes 0 to 3 are turns to that direction, taken before the next tick.
+ * {@link #KEYFRAME} is followed by a varint length and the engine's
+ * {@link GameEngine#writeState state} at that tick, so a viewer can start
+ * from there instead of from tick 0. The last event is {@link #END}, at
+ * the tick the game stopped, followed by the final score as a varint and
+ * the {@link GameEngine.Outcome} as a byte, so a replay can check that it
+ * came out the same. Most turns take a single byte, so a minute of play is
+ * a few dozen bytes plus the keyframe.
+ *
+ * After the events comes the keyframe index, fixed width so it can be
+ * searched in place: a long tick and a long file offset of the state for
+ * each keyframe, then an int count and {@link #INDEX_MAGIC}. A recording
+ * cut short has no index. Files older than {@link #OLDEST_VERSION} were
+ * played on levels laid out differently and cannot be replayed.
+ *
+ * Run this class on replay files or directories of them to re-simulate
+ * them all, as fast as the machine goes, and report any that no longer
+ * come out the way they were recorded.
+ */
+public class Replay {
+    static final int MAGIC = 0x534E4B52;
+    static final int INDEX_MAGIC = 0x534E4B49;
+    static final int VERSION = 3;
+    static final int OLDEST_VERSION = 3;
+    static final int CODE_BITS = 3;
+    static final int END = 4;
+    static final int KEYFRAME = 5;
+
+    public static final String EXTENSION = ".snkr";
+
+    private final int cols, rows, tickMillis, level;
+    private final long seed;
+
+    public Replay(int cols, int rows, int tickMillis, int level, long seed) {
+        this.cols = cols;
+        this.rows = rows;
+        this.tickMillis = tickMillis;
+        this.level = level;
+        this.seed = seed;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getTickMillis() {
+        return tickMillis;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /** A fresh engine at tick 0 of this game. */
+    public GameEngine newEngine() {
+        GameEngine engine = new GameEngine(cols, rows, new GameRandom(), tickMillis);
+        engine.restart(seed, level);
+        return engine;
+    }
+
+    /** What came of playing a file back with {@link #verify}. */
+    public static class Check {
+        /** Ticks played and how long they took in game time. */
+        public final long ticks, gameMillis;
+        /** Null if the game ended as recorded, otherwise what differed. */
+        public final String problem;
+
+        Check(long ticks, long gameMillis, String problem) {
+            this.ticks = ticks;
+            this.gameMillis = gameMillis;
+            this.problem = problem;
+        }
+    }
+
+    /**
+     * Plays the whole file on a fresh engine and checks it ended at the
+     * recorded tick with the recorded score and outcome.
+     */
+    public static Check verify(Path path) throws IOException {
+        try (ReplayReader reader = ReplayReader.open(path)) {
+            GameEngine engine = reader.getReplay().newEngine();
+            GameEngine.Outcome outcome = GameEngine.Outcome.RUNNING;
+            while (!outcome.isDeath() && reader.feed(engine)) {
+                outcome = engine.step(GameEngine.NONE);
+            }
+            if (!outcome.isDeath()) {
+                outcome = GameEngine.Outcome.RUNNING;
+            }
+            String problem = null;
+            if (reader.getDivergedAt() >= 0) {
+                problem = "differs from the keyframe at tick " + reader.getDivergedAt();
+            } else if (engine.getTick() != reader.getEndTick() || engine.getScore() != reader.getEndScore()
+                    || outcome != reader.getEndOutcome()) {
+                problem = "recorded " + reader.getEndOutcome() + " at tick " + reader.getEndTick()
+                        + " with " + reader.getEndScore() + ", replayed " + outcome
+                        + " at tick " + engine.getTick() + " with " + engine.getScore();
+            }
+            return new Check(engine.getTick(), engine.getTick() * reader.getReplay().getTickMillis(), problem);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: java Example.Replay <replay file or directory>...");
+            return;
+        }
+        List<Path> files = new ArrayList<>();
+        for (String arg : args) {
+            Path path = Paths.get(arg);
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> found = Files.walk(path)) {
+                    files.addAll(found.filter(p -> p.toString().endsWith(EXTENSION)).collect(Collectors.toList()));
+                }
+            } else {
+                files.add(path);
+            }
+        }
+
+        AtomicInteger failed = new AtomicInteger();
+        AtomicLong ticks = new AtomicLong(), gameMillis = new AtomicLong();
+        long start = System.nanoTime();
+        files.parallelStream().forEach(file -> {
+            try {
+                Check check = verify(file);
+                ticks.addAndGet(check.ticks);
+                gameMillis.addAndGet(check.gameMillis);
+                if (check.problem != null) {
+                    failed.incrementAndGet();
+                    System.out.println(file + ": " + check.problem);
+                }
+            } catch (IOException e) {
+                failed.incrementAndGet();
+                System.out.println(file + ": " + e);
+            }
+        });
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d replays, %d failed, %d ticks in %.2f s, %.0fx real time%n",
+                files.size(), failed.get(), ticks.get(), seconds, gameMillis.get() / 1e3 / seconds);
+        if (failed.get() > 0) {
+            System.exit(1);
+        }
+    }
+}
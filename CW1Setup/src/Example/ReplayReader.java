@@ -0,0 +1,229 @@
+package Example;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Plays a {@link Replay} file back into an engine. The file is memory
+ * mapped, so the operating system pages in only the parts that are read
+ * and {@link #seek} can jump straight to a keyframe through the index at
+ * the end. The reader always holds the next event, so it knows the game's
+ * end tick as soon as the last turn has been applied.
+ */
+public class ReplayReader implements Closeable {
+    private static final GameEngine.Outcome[] OUTCOMES = GameEngine.Outcome.values();
+    private static final int INDEX_ENTRY = 16;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer file;
+    private Replay replay;
+    private int eventsStart;
+    private int indexStart = -1, keyframes;
+
+    private long nextTick;
+    private int nextCode;
+    private int keyframeStart, keyframeLength;
+    private int endScore;
+    private GameEngine.Outcome endOutcome;
+    private long divergedAt = -1;
+    private ByteBuffer scratch;
+
+    private ReplayReader(Path path, FileChannel channel) throws IOException {
+        this.path = path;
+        this.channel = channel;
+        this.file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+
+    public static ReplayReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ReplayReader reader = new ReplayReader(path, channel);
+            reader.readHeader();
+            reader.readIndex();
+            reader.readEvent();
+            return reader;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void readHeader() throws IOException {
+        need(5);
+        if (file.getInt() != Replay.MAGIC) {
+            throw new IOException(path + " is not a replay");
+        }
+        int version = file.get();
+        if (version < Replay.OLDEST_VERSION || version > Replay.VERSION) {
+            throw new IOException(path + " is replay version " + version + ", expected "
+                    + Replay.OLDEST_VERSION + " to " + Replay.VERSION);
+        }
+        int cols = (int) getVarint(), rows = (int) getVarint();
+        int tickMillis = (int) getVarint(), level = (int) getVarint();
+        need(8);
+        replay = new Replay(cols, rows, tickMillis, level, file.getLong());
+        eventsStart = file.position();
+    }
+
+    /** Finds the keyframe index, if the recording got as far as writing one. */
+    private void readIndex() {
+        int limit = file.limit();
+        if (limit - eventsStart < 8 || file.getInt(limit - 4) != Replay.INDEX_MAGIC) {
+            return;
+        }
+        int count = file.getInt(limit - 8);
+        long start = limit - 8 - (long) count * INDEX_ENTRY;
+        if (count >= 0 && start >= eventsStart) {
+            indexStart = (int) start;
+            keyframes = count;
+        }
+    }
+
+    public Replay getReplay() {
+        return replay;
+    }
+
+    /**
+     * Applies every turn recorded for the engine's current tick. Returns
+     * whether the recording goes on past this tick, that is whether the
+     * engine should be stepped again. Keyframes on the way are compared
+     * with the engine, see {@link #getDivergedAt}.
+     */
+    public boolean feed(GameEngine engine) throws IOException {
+        while (nextCode != Replay.END && nextTick <= engine.getTick()) {
+            if (nextCode == Replay.KEYFRAME) {
+                checkKeyframe(engine);
+            } else {
+                engine.turn(nextCode);
+            }
+            readEvent();
+        }
+        return nextCode != Replay.END || engine.getTick() < nextTick;
+    }
+
+    private void checkKeyframe(GameEngine engine) {
+        if (divergedAt >= 0) {
+            return;
+        }
+        if (scratch == null || scratch.capacity() < engine.stateSize()) {
+            scratch = ByteBuffer.allocate(Integer.highestOneBit(engine.stateSize()) << 1);
+        }
+        scratch.clear();
+        engine.writeState(scratch);
+        scratch.flip();
+        if (!scratch.equals(file.slice(keyframeStart, keyframeLength))) {
+            divergedAt = nextTick;
+        }
+    }
+
+    /**
+     * Brings {@code engine}, made by this replay's {@link Replay#newEngine},
+     * to {@code tick}, or to the end of the game if that comes first. It
+     * loads the last keyframe at or before the tick and plays on from
+     * there, so it never steps more than a keyframe interval. Files
+     * without an index are played from the start. The engine has to be
+     * the one this reader has been feeding, and reading carries on from
+     * the new position afterwards.
+     */
+    public void seek(GameEngine engine, long tick) throws IOException {
+        int keyframe = -1;
+        int low = 0, high = keyframes - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (file.getLong(indexStart + mid * INDEX_ENTRY) <= tick) {
+                keyframe = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        long keyframeTick = keyframe >= 0 ? file.getLong(indexStart + keyframe * INDEX_ENTRY) : 0;
+        // playing on is quicker when the engine is already between the keyframe and the tick
+        if (engine.getTick() < keyframeTick || engine.getTick() > tick) {
+            if (keyframe >= 0) {
+                file.position((int) file.getLong(indexStart + keyframe * INDEX_ENTRY + 8));
+                engine.readState(file);
+            } else {
+                file.position(eventsStart);
+                engine.restart(replay.getSeed(), replay.getLevel());
+            }
+            nextTick = engine.getTick();
+            readEvent();
+        }
+        GameEngine.Outcome outcome = GameEngine.Outcome.RUNNING;
+        while (engine.getTick() < tick && !outcome.isDeath() && feed(engine)) {
+            outcome = engine.step(GameEngine.NONE);
+        }
+    }
+
+    /** The tick the game stopped at; only known once the last turn has been fed. */
+    public long getEndTick() {
+        return nextCode == Replay.END ? nextTick : -1;
+    }
+
+    public int getEndScore() {
+        return endScore;
+    }
+
+    public GameEngine.Outcome getEndOutcome() {
+        return endOutcome;
+    }
+
+    /** The first keyframe tick where the engine being fed was not in the recorded state, or -1. */
+    public long getDivergedAt() {
+        return divergedAt;
+    }
+
+    private void readEvent() throws IOException {
+        long event = getVarint();
+        nextTick += event >>> Replay.CODE_BITS;
+        nextCode = (int) (event & ((1 << Replay.CODE_BITS) - 1));
+        if (nextCode == Replay.END) {
+            endScore = (int) getVarint();
+            need(1);
+            int outcome = file.get();
+            if (outcome < 0 || outcome >= OUTCOMES.length) {
+                throw new IOException("Unknown outcome " + outcome);
+            }
+            endOutcome = OUTCOMES[outcome];
+        } else if (nextCode == Replay.KEYFRAME) {
+            keyframeLength = (int) getVarint();
+            need(keyframeLength);
+            keyframeStart = file.position();
+            file.position(keyframeStart + keyframeLength);
+        } else if (nextCode > GameEngine.LEFT) {
+            throw new IOException("Unknown event " + nextCode + " at tick " + nextTick);
+        }
+    }
+
+    private long getVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            need(1);
+            byte b = file.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private void need(int bytes) throws IOException {
+        if (file.remaining() < bytes) {
+            throw new EOFException("Replay ends before the game does");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
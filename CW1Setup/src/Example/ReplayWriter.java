@@ -0,0 +1,150 @@
+package Example;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Records a game in the {@link Replay} format as it is played. Events are
+ * gathered in a small buffer and written to the file channel when it
+ * fills up and when the game ends, so recording costs the game loop a few
+ * array writes per turn, plus a snapshot of the game every
+ * {@link GameEngine#KEYFRAME_TICKS} ticks.
+ */
+public class ReplayWriter implements Closeable {
+    private final FileChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocate(4096);
+    private ByteBuffer state = ByteBuffer.allocate(256);
+    private long written;
+    private long lastTick;
+    private boolean ended;
+    // tick and file offset of each keyframe, one after the other
+    private long[] keyframes = new long[16];
+    private int keyframeCount;
+
+    private ReplayWriter(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    public static ReplayWriter create(Path path, Replay replay) throws IOException {
+        ReplayWriter writer = new ReplayWriter(FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+        writer.buffer.putInt(Replay.MAGIC);
+        writer.buffer.put((byte) Replay.VERSION);
+        writer.putVarint(replay.getCols());
+        writer.putVarint(replay.getRows());
+        writer.putVarint(replay.getTickMillis());
+        writer.putVarint(replay.getLevel());
+        writer.buffer.putLong(replay.getSeed());
+        return writer;
+    }
+
+    /** Records a turn the engine took at {@code tick}, before stepping to the next one. */
+    public void turn(long tick, int direction) throws IOException {
+        event(tick, direction);
+    }
+
+    /** Call after every step; saves a keyframe when one is due. */
+    public void stepped(GameEngine engine) throws IOException {
+        if (engine.getTick() % GameEngine.KEYFRAME_TICKS == 0) {
+            keyframe(engine);
+        }
+    }
+
+    /** Saves the engine's whole state, so a viewer can start playing from here. */
+    private void keyframe(GameEngine engine) throws IOException {
+        if (state.capacity() < engine.stateSize()) {
+            state = ByteBuffer.allocate(Integer.highestOneBit(engine.stateSize()) << 1);
+        }
+        state.clear();
+        engine.writeState(state);
+        state.flip();
+
+        event(engine.getTick(), Replay.KEYFRAME);
+        putVarint(state.remaining());
+        if (buffer.remaining() < state.remaining()) {
+            flush();
+            if (buffer.capacity() < state.remaining()) {
+                buffer = ByteBuffer.allocate(Integer.highestOneBit(state.remaining()) << 1);
+            }
+        }
+        if (keyframeCount * 2 == keyframes.length) {
+            keyframes = Arrays.copyOf(keyframes, keyframes.length * 2);
+        }
+        keyframes[keyframeCount * 2] = engine.getTick();
+        keyframes[keyframeCount * 2 + 1] = written + buffer.position();
+        keyframeCount++;
+        buffer.put(state);
+    }
+
+    /**
+     * Records how the game ended, then the keyframe index, and writes out
+     * everything still buffered.
+     */
+    public void end(long tick, int score, GameEngine.Outcome outcome) throws IOException {
+        event(tick, Replay.END);
+        putVarint(score);
+        buffer.put((byte) outcome.ordinal());
+        ended = true;
+        for (int i = 0; i < keyframeCount * 2; i++) {
+            if (buffer.remaining() < 8) {
+                flush();
+            }
+            buffer.putLong(keyframes[i]);
+        }
+        if (buffer.remaining() < 8) {
+            flush();
+        }
+        buffer.putInt(keyframeCount);
+        buffer.putInt(Replay.INDEX_MAGIC);
+        flush();
+    }
+
+    public boolean isEnded() {
+        return ended;
+    }
+
+    private void event(long tick, int code) throws IOException {
+        if (ended) {
+            throw new IllegalStateException("The game has already ended");
+        }
+        if (tick < lastTick) {
+            throw new IllegalArgumentException("Tick " + tick + " is before " + lastTick);
+        }
+        putVarint((tick - lastTick) << Replay.CODE_BITS | code);
+        lastTick = tick;
+    }
+
+    private void putVarint(long value) throws IOException {
+        if (buffer.remaining() < 10) {
+            flush();
+        }
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /** Writes out what is buffered and closes the file; a game that never ended stays unfinished. */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package Example;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32;
+
+/**
+ * Every score ever recorded, ranked in a {@link Leaderboard} and kept on
+ * disk as an append-only journal. Adding a score ranks it straight away
+ * and hands the record to a background thread, which writes whatever has
+ * queued up in one go and forces it to disk, so the game never waits on
+ * the file.
+ *
+ * Each record carries its length and a CRC, so a record torn by a crash
+ * is spotted on the next load and cut off, leaving everything before it.
+ * Once enough records have been appended out of order the journal is
+ * rewritten, sorted best first, into a new file which then replaces the
+ * old one in a single atomic rename. A sorted journal loads by linking
+ * each score onto the end of its lists.
+ */
+public class ScoreStore {
+    static final int COMPACT_AFTER = 100;
+
+    // markers for the writer, never written themselves
+    private static final Score CLOSE = new Score("", 0, 0, 0);
+    private static final Score COMPACT = new Score("", 0, 0, 0);
+    private static final int MAX_RECORD = 4096;
+
+    /** One finished game. Players may share a name, each of their scores is kept. */
+    public static class Score implements Comparable<Score> {
+        public final String name;
+        public final int score;
+        public final int level;
+        public final long time;
+        // order of adding in this run, so the writer can tell what a compaction already holds
+        long sequence;
+
+        public Score(String name, int score, int level, long time) {
+            this.name = name;
+            this.score = score;
+            this.level = level;
+            this.time = time;
+        }
+
+        /** Highest score first, and the earlier of two equal scores first. */
+        @Override
+        public int compareTo(Score other) {
+            int byScore = Integer.compare(other.score, score);
+            return byScore != 0 ? byScore : Long.compare(time, other.time);
+        }
+
+        @Override
+        public String toString() {
+            return name + ": " + score;
+        }
+    }
+
+    private final Path journal;
+    private final Leaderboard board = new Leaderboard();
+    private final BlockingQueue<Score> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private FileChannel channel;
+    private long nextSequence = 1;
+    // records appended since the journal was last sorted, only touched by the writer after loading
+    private int sinceCompaction;
+
+    /**
+     * Loads the journal, or the old {@code legacy} properties file if there
+     * is no journal yet, and starts the writer. If the journal cannot be
+     * opened the table still works for this run and nothing is saved.
+     */
+    public ScoreStore(Path journal, Path legacy) {
+        this.journal = journal;
+        try {
+            if (Files.exists(journal)) {
+                load();
+            } else if (legacy != null && Files.exists(legacy)) {
+                importProperties(legacy);
+                // the journal only appears once it holds every imported
+                // score, so a crash before then just imports them again
+                Path temp = tempFile();
+                writeAll(temp, ranked());
+                Files.move(temp, journal, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            channel = FileChannel.open(journal, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        writer = new Thread(this::writeLoop, "score-writer");
+        writer.setDaemon(true);
+        writer.start();
+        if (sinceCompaction >= Math.max(COMPACT_AFTER, board.size() / 8)) {
+            queue.add(COMPACT);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "score-writer-shutdown"));
+    }
+
+    /** Ranks the score now and queues it to be written. */
+    public void add(Score score) {
+        synchronized (this) {
+            score.sequence = nextSequence++;
+            board.add(score);
+        }
+        queue.add(score);
+    }
+
+    /**
+     * The ranked scores. Only read it from the thread that adds scores,
+     * the Swing thread in the game.
+     */
+    public Leaderboard getLeaderboard() {
+        return board;
+    }
+
+    /** The best {@code count} scores overall, best first. */
+    public synchronized List<Score> top(int count) {
+        List<Score> top = new ArrayList<>(count);
+        board.all().forEach(0, count, top::add);
+        return top;
+    }
+
+    /**
+     * Writes out whatever is still queued and stops the writer. Runs on
+     * its own at shutdown.
+     */
+    public void close() {
+        if (writer.isAlive()) {
+            queue.add(CLOSE);
+            try {
+                writer.join(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void writeLoop() {
+        long compactedThrough = 0;
+        List<Score> batch = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_RECORD * 4);
+        boolean closing = false;
+        while (!closing) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch);
+            for (Score score : batch) {
+                if (score == CLOSE) {
+                    closing = true;
+                } else if (score != COMPACT && score.sequence > compactedThrough) {
+                    if (buffer.remaining() < MAX_RECORD) {
+                        write(buffer);
+                    }
+                    putRecord(buffer, score);
+                    sinceCompaction++;
+                }
+            }
+            batch.clear();
+            write(buffer);
+            if (sinceCompaction >= Math.max(COMPACT_AFTER, size() / 8)) {
+                compactedThrough = compact();
+            }
+        }
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /** Appends the buffer to the journal and waits for it to reach the disk. */
+    private void write(ByteBuffer buffer) {
+        buffer.flip();
+        try {
+            if (channel != null && buffer.hasRemaining()) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        buffer.clear();
+    }
+
+    private synchronized int size() {
+        return board.size();
+    }
+
+    /**
+     * Rewrites the journal with every score, best first, and swaps it in
+     * with an atomic rename. Returns the last sequence number it holds,
+     * since scores still queued may already be in it.
+     */
+    private long compact() {
+        Score[] kept;
+        long through;
+        synchronized (this) {
+            kept = ranked();
+            through = nextSequence - 1;
+        }
+        if (channel == null) {
+            return 0;
+        }
+        Path temp = tempFile();
+        try {
+            writeAll(temp, kept);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return 0;
+        }
+        try {
+            channel.close();
+            Files.move(temp, journal, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            sinceCompaction = 0;
+        } catch (IOException e) {
+            e.printStackTrace();
+            through = 0;
+        }
+        try {
+            channel = FileChannel.open(journal, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            e.printStackTrace();
+            channel = null;
+        }
+        return through;
+    }
+
+    /** Every score, best first. */
+    private Score[] ranked() {
+        Score[] scores = new Score[board.size()];
+        int[] at = {0};
+        board.all().forEach(0, scores.length, score -> scores[at[0]++] = score);
+        return scores;
+    }
+
+    private Path tempFile() {
+        return journal.resolveSibling(journal.getFileName() + ".tmp");
+    }
+
+    /** Writes {@code scores} to a fresh {@code file} and waits for them to reach the disk. */
+    private static void writeAll(Path file, Score[] scores) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_RECORD * 16);
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Score score : scores) {
+                if (buffer.remaining() < MAX_RECORD) {
+                    drain(buffer, out);
+                }
+                putRecord(buffer, score);
+            }
+            drain(buffer, out);
+            out.force(true);
+        }
+    }
+
+    private static void drain(ByteBuffer buffer, FileChannel out) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * A record is an int length, then the name as UTF-8 behind a short
+     * length, the score, the level, the time and a CRC32 of all of it.
+     */
+    private static void putRecord(ByteBuffer buffer, Score score) {
+        byte[] name = score.name.getBytes(StandardCharsets.UTF_8);
+        int nameLength = Math.min(name.length, MAX_RECORD - 64);
+        // A long name is cut before the byte that starts a character, so
+        // it never ends halfway through one.
+        if (nameLength < name.length) {
+            while ((name[nameLength] & 0xC0) == 0x80) {
+                nameLength--;
+            }
+        }
+        int length = 2 + nameLength + 4 + 4 + 8;
+        buffer.putInt(length);
+        int start = buffer.position();
+        buffer.putShort((short) nameLength);
+        buffer.put(name, 0, nameLength);
+        buffer.putInt(score.score);
+        buffer.putInt(score.level);
+        buffer.putLong(score.time);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), buffer.arrayOffset() + start, length);
+        buffer.putInt((int) crc.getValue());
+    }
+
+    /** Reads every whole record and cuts the journal off after the last one. */
+    private void load() throws IOException {
+        ByteBuffer data;
+        try {
+            data = ByteBuffer.wrap(Files.readAllBytes(journal));
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        int good = 0;
+        Score previous = null;
+        CRC32 crc = new CRC32();
+        while (data.remaining() >= 4) {
+            int length = data.getInt();
+            if (length < 18 || length > MAX_RECORD || data.remaining() < length + 4) {
+                break;
+            }
+            int start = data.position();
+            crc.reset();
+            crc.update(data.array(), start, length);
+            if ((int) crc.getValue() != data.getInt(start + length)) {
+                break;
+            }
+            int nameLength = data.getShort() & 0xFFFF;
+            if (nameLength != length - 18) {
+                break;
+            }
+            String name = new String(data.array(), data.position(), nameLength, StandardCharsets.UTF_8);
+            data.position(data.position() + nameLength);
+            Score score = new Score(name, data.getInt(), data.getInt(), data.getLong());
+            if (previous != null && score.compareTo(previous) < 0) {
+                sinceCompaction++;
+            }
+            board.add(score);
+            previous = score;
+            data.getInt();
+            good = data.position();
+        }
+        if (good < data.limit()) {
+            System.out.println("Dropping " + (data.limit() - good) + " bytes of unfinished scores from " + journal);
+            try (FileChannel out = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+                out.truncate(good);
+                out.force(true);
+            }
+        }
+    }
+
+    private void importProperties(Path legacy) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(legacy)) {
+            properties.load(input);
+        }
+        for (String name : properties.stringPropertyNames()) {
+            try {
+                board.add(new Score(name, Integer.parseInt(properties.getProperty(name).trim()), 0, 0));
+            } catch (NumberFormatException e) {
+                System.out.println("Skipping high score " + name + ": " + properties.getProperty(name));
+            }
+        }
+    }
+}
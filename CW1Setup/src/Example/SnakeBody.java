@@ -0,0 +1,115 @@
+package Example;
+
+/**
+ * The snake's body as a circular buffer of packed cells, head first.
+ * Moving is a push at the head and a pop at the tail, both O(1), and
+ * nothing is allocated unless the buffer has to grow.
+ *
+ * A cell is packed as {@code x << 16 | y} with both halves kept as signed
+ * shorts, so boards up to 32767 cells a side (and negative coordinates)
+ * fit in one int.
+ */
+public class SnakeBody {
+    private int[] cells;
+    private int mask;
+    private int head;
+    private int length;
+
+    public SnakeBody(int initialCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(initialCapacity, 4) - 1) << 1;
+        cells = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    public SnakeBody() {
+        this(64);
+    }
+
+    public static int pack(int x, int y) {
+        return (x << 16) | (y & 0xFFFF);
+    }
+
+    public static int x(int cell) {
+        return cell >> 16;
+    }
+
+    public static int y(int cell) {
+        return (short) cell;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public int capacity() {
+        return cells.length;
+    }
+
+    public void clear() {
+        head = 0;
+        length = 0;
+    }
+
+    /** Cell {@code i} counting from the head, which is 0. */
+    public int get(int i) {
+        if (i < 0 || i >= length) {
+            throw new IndexOutOfBoundsException("Segment " + i + " of " + length);
+        }
+        return cells[(head + i) & mask];
+    }
+
+    public int head() {
+        return get(0);
+    }
+
+    public int tail() {
+        return get(length - 1);
+    }
+
+    public void pushHead(int cell) {
+        if (length == cells.length) {
+            grow();
+        }
+        head = (head - 1) & mask;
+        cells[head] = cell;
+        length++;
+    }
+
+    /** Appends behind the tail, used when building the body up from the head. */
+    public void pushTail(int cell) {
+        if (length == cells.length) {
+            grow();
+        }
+        cells[(head + length) & mask] = cell;
+        length++;
+    }
+
+    public int popTail() {
+        if (length == 0) {
+            throw new IllegalStateException("Snake body is empty");
+        }
+        length--;
+        return cells[(head + length) & mask];
+    }
+
+    /** Takes the head back off, for undoing a move. */
+    public int popHead() {
+        if (length == 0) {
+            throw new IllegalStateException("Snake body is empty");
+        }
+        int cell = cells[head];
+        head = (head + 1) & mask;
+        length--;
+        return cell;
+    }
+
+    private void grow() {
+        int[] bigger = new int[cells.length << 1];
+        int firstRun = Math.min(length, cells.length - head);
+        System.arraycopy(cells, head, bigger, 0, firstRun);
+        System.arraycopy(cells, 0, bigger, firstRun, length - firstRun);
+        cells = bigger;
+        mask = bigger.length - 1;
+        head = 0;
+    }
+}
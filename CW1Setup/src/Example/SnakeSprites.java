@@ -0,0 +1,55 @@
+package Example;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * The snake's head and body pictures turned to face each direction, made
+ * once up front. Turning the snake just picks another one out of the array
+ * instead of rotating a fresh image on every key press.
+ *
+ * Directions are the {@link GameEngine} ones: UP, RIGHT, DOWN, LEFT. A
+ * picture that failed to load leaves its four entries null.
+ */
+public class SnakeSprites {
+    private static final int[] DEGREES = {-90, 0, 90, 180};
+
+    private final BufferedImage[] heads = new BufferedImage[4];
+    private final BufferedImage[] bodies = new BufferedImage[4];
+
+    public SnakeSprites(BufferedImage headRight, BufferedImage bodyRight) {
+        for (int direction = GameEngine.UP; direction <= GameEngine.LEFT; direction++) {
+            heads[direction] = turned(headRight, direction);
+            bodies[direction] = turned(bodyRight, direction);
+        }
+    }
+
+    private static BufferedImage turned(BufferedImage image, int direction) {
+        if (image == null || direction == GameEngine.RIGHT) {
+            return image;
+        }
+        return (BufferedImage) GameUtil.rotateImage(image, DEGREES[direction]);
+    }
+
+    public static SnakeSprites shared() {
+        return Shared.INSTANCE;
+    }
+
+    /** The head facing {@code direction}, or null if it failed to load. */
+    public BufferedImage head(int direction) {
+        return heads[direction];
+    }
+
+    /**
+     * A body segment heading in {@code direction}, or null if it failed to
+     * load; also used for the tail.
+     */
+    public BufferedImage body(int direction) {
+        return bodies[direction];
+    }
+
+    private static class Shared {
+        static final SnakeSprites INSTANCE = new SnakeSprites(
+                (BufferedImage) ImageUtil.images.get("snake-head-right"),
+                (BufferedImage) ImageUtil.images.get("snake-body"));
+    }
+}
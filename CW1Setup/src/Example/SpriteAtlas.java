@@ -0,0 +1,195 @@
+package Example;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * All of the game's pictures copied into a few images made by the screen's
+ * {@link GraphicsConfiguration}, so Java2D can keep them in video memory
+ * and blit from them directly. Sprites are looked up by the int ids below
+ * instead of by building a string and hashing it on every draw.
+ *
+ * Small sprites share one page, packed in shelves. Anything bigger than
+ * {@link #MAX_PACKED} a side (backgrounds, the sprite sheets) gets a page
+ * of its own. Pages are only ever drawn from, never read pixel by pixel,
+ * so Java2D keeps them accelerated.
+ */
+public class SpriteAtlas {
+    public static final int FOOD = 0;
+    public static final int BRICK = FOOD + GameEngine.FOOD_KINDS;
+    public static final int SNAKE_HEAD = BRICK + 3;
+    public static final int SNAKE_BODY = SNAKE_HEAD + 4;
+    public static final int BACKGROUND = SNAKE_BODY + 4;
+    public static final int GAME_OVER = BACKGROUND + 1;
+    public static final int START_SCENE = GAME_OVER + 1;
+    public static final int SNAKE_SPRITES_SHEET = START_SCENE + 1;
+    public static final int SNAKE_GRAPHICS_SHEET = SNAKE_SPRITES_SHEET + 1;
+    public static final int HUNTER = SNAKE_GRAPHICS_SHEET + 1;
+    public static final int RED_DOT = HUNTER + 1;
+    public static final int COUNT = RED_DOT + 1;
+
+    private static final int PAGE_WIDTH = 512;
+    private static final int MAX_PACKED = 128;
+    private static final int PADDING = 1;
+
+    private final List<BufferedImage> pages = new ArrayList<>();
+    private final BufferedImage[] page = new BufferedImage[COUNT];
+    private final int[] sx = new int[COUNT];
+    private final int[] sy = new int[COUNT];
+    private final int[] width = new int[COUNT];
+    private final int[] height = new int[COUNT];
+
+    public SpriteAtlas(GraphicsConfiguration config, Image[] sources) {
+        Integer[] order = new Integer[COUNT];
+        for (int id = 0; id < COUNT; id++) {
+            order[id] = id;
+            if (sources[id] != null) {
+                width[id] = sources[id].getWidth(null);
+                height[id] = sources[id].getHeight(null);
+            }
+        }
+        // tallest first keeps the shelves tight
+        Arrays.sort(order, (a, b) -> Integer.compare(height[b], height[a]));
+
+        int shelfX = 0, shelfY = 0, shelfHeight = 0;
+        List<Integer> packed = new ArrayList<>();
+        for (int id : order) {
+            if (sources[id] == null) {
+                continue;
+            }
+            if (width[id] > MAX_PACKED || height[id] > MAX_PACKED) {
+                BufferedImage own = createPage(config, width[id], height[id]);
+                copy(sources[id], own, 0, 0);
+                page[id] = own;
+                continue;
+            }
+            if (shelfX + width[id] > PAGE_WIDTH) {
+                shelfX = 0;
+                shelfY += shelfHeight + PADDING;
+                shelfHeight = 0;
+            }
+            sx[id] = shelfX;
+            sy[id] = shelfY;
+            shelfX += width[id] + PADDING;
+            shelfHeight = Math.max(shelfHeight, height[id]);
+            packed.add(id);
+        }
+
+        if (!packed.isEmpty()) {
+            BufferedImage shared = createPage(config, PAGE_WIDTH, shelfY + shelfHeight);
+            for (int id : packed) {
+                copy(sources[id], shared, sx[id], sy[id]);
+                page[id] = shared;
+            }
+        }
+    }
+
+    private BufferedImage createPage(GraphicsConfiguration config, int w, int h) {
+        BufferedImage image = config != null
+                ? config.createCompatibleImage(w, h, Transparency.TRANSLUCENT)
+                : new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB_PRE);
+        pages.add(image);
+        return image;
+    }
+
+    private static void copy(Image source, BufferedImage target, int x, int y) {
+        Graphics2D g = target.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.drawImage(source, x, y, null);
+        g.dispose();
+    }
+
+    public static SpriteAtlas shared() {
+        return Shared.INSTANCE;
+    }
+
+    /** Ids of sprites that failed to load have no page and draw nothing. */
+    public boolean has(int id) {
+        return page[id] != null;
+    }
+
+    public int width(int id) {
+        return width[id];
+    }
+
+    public int height(int id) {
+        return height[id];
+    }
+
+    public int pageCount() {
+        return pages.size();
+    }
+
+    public void draw(Graphics g, int id, int x, int y) {
+        BufferedImage p = page[id];
+        if (p != null) {
+            g.drawImage(p, x, y, x + width[id], y + height[id],
+                    sx[id], sy[id], sx[id] + width[id], sy[id] + height[id], null);
+        }
+    }
+
+    /** Draws the sprite stretched over the given rectangle. */
+    public void draw(Graphics g, int id, int x, int y, int w, int h) {
+        BufferedImage p = page[id];
+        if (p != null) {
+            g.drawImage(p, x, y, x + w, y + h,
+                    sx[id], sy[id], sx[id] + width[id], sy[id] + height[id], null);
+        }
+    }
+
+    static Image[] defaultSources() {
+        Image[] sources = new Image[COUNT];
+        for (int kind = 0; kind < GameEngine.FOOD_KINDS; kind++) {
+            sources[FOOD + kind] = ImageUtil.images.get(String.valueOf(kind));
+        }
+        for (int level = 1; level <= 3; level++) {
+            sources[BRICK + level - 1] = ImageUtil.images.get("brick-" + level);
+        }
+        // a snake picture that failed to load leaves its four ids empty
+        SnakeSprites snake = SnakeSprites.shared();
+        for (int direction = GameEngine.UP; direction <= GameEngine.LEFT; direction++) {
+            sources[SNAKE_HEAD + direction] = snake.head(direction);
+            sources[SNAKE_BODY + direction] = snake.body(direction);
+        }
+        sources[BACKGROUND] = ImageUtil.images.get("UI-background");
+        sources[GAME_OVER] = ImageUtil.images.get("game-scene-01");
+        sources[START_SCENE] = ImageUtil.images.get("game-start-scene");
+        sources[SNAKE_SPRITES_SHEET] = ImageUtil.images.get("snake-sprites");
+        sources[SNAKE_GRAPHICS_SHEET] = ImageUtil.images.get("snake-graphics");
+        // there is no picture for these, so they are drawn here
+        sources[HUNTER] = disc(GameEngine.CELL, new Color(0x8E24AA), Color.BLACK);
+        sources[RED_DOT] = disc(GameEngine.CELL, Color.RED, new Color(0x7F0000));
+        return sources;
+    }
+
+    /** A filled circle {@code size} pixels across, outlined in {@code edge}. */
+    static BufferedImage disc(int size, Color fill, Color edge) {
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setColor(fill);
+        g.fillOval(1, 1, size - 2, size - 2);
+        g.setColor(edge);
+        g.drawOval(1, 1, size - 3, size - 3);
+        g.dispose();
+        return image;
+    }
+
+    private static class Shared {
+        static final SpriteAtlas INSTANCE = new SpriteAtlas(
+                GraphicsEnvironment.isHeadless() ? null
+                        : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration(),
+                defaultSources());
+    }
+}
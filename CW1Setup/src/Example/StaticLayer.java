@@ -0,0 +1,58 @@
+package Example;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.image.BufferedImage;
+
+/**
+ * Everything on the board that does not move, drawn once into an image
+ * the size of the panel: the background scaled to fit and the level's
+ * bricks. It is only redrawn when the panel changes size or a new set of
+ * bricks is laid out, so a frame starts with one unscaled blit.
+ */
+public class StaticLayer {
+    private final SpriteAtlas atlas;
+    private BufferedImage image;
+    private int width, height;
+    private long levelVersion = -1;
+    private int brick = -1;
+
+    public StaticLayer(SpriteAtlas atlas) {
+        this.atlas = atlas;
+    }
+
+    public void invalidate() {
+        levelVersion = -1;
+    }
+
+    /** Brings the layer up to date if needed and draws it at the origin. */
+    public void draw(Graphics g, GraphicsConfiguration config, int width, int height, GameEngine engine, int brick) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        if (image == null || width != this.width || height != this.height
+                || engine.getLevelVersion() != levelVersion || brick != this.brick) {
+            render(config, width, height, engine, brick);
+        }
+        g.drawImage(image, 0, 0, null);
+    }
+
+    private void render(GraphicsConfiguration config, int width, int height, GameEngine engine, int brick) {
+        if (image == null || width != this.width || height != this.height) {
+            image = config != null
+                    ? config.createCompatibleImage(width, height)
+                    : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+        Graphics2D g = image.createGraphics();
+        atlas.draw(g, SpriteAtlas.BACKGROUND, 0, 0, width, height);
+        for (int i = 0; i < engine.getObstacleCount(); i++) {
+            atlas.draw(g, brick, engine.getObstacleX(i) * GameEngine.CELL, engine.getObstacleY(i) * GameEngine.CELL);
+        }
+        g.dispose();
+        this.width = width;
+        this.height = height;
+        this.levelVersion = engine.getLevelVersion();
+        this.brick = brick;
+    }
+}
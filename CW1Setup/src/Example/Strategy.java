@@ -0,0 +1,12 @@
+package Example;
+
+/**
+ * Something that plays a {@link GameEngine}: asked once a tick, before the
+ * engine steps, which way to go. {@link Tournament} pits these against each
+ * other, so one should depend on nothing but the game in front of it, and
+ * each game gets an instance no other thread is using.
+ */
+public interface Strategy {
+    /** One of the {@link GameEngine} directions, or {@link GameEngine#NONE} to keep going. */
+    int decide(GameEngine engine);
+}
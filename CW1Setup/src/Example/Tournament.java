@@ -0,0 +1,304 @@
+package Example;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+/**
+ * Plays every strategy on every level with every seed, headless and on all
+ * cores, and says how each did. Each game is numbered, and the numbers are
+ * split in halves down to a few games a task on a fork-join pool, whose
+ * idle threads steal the halves still waiting; that evens out games that
+ * last a few ticks against ones that last thousands.
+ *
+ * A game depends only on its strategy, level and seed, so the results are
+ * the same however many threads run them, though the rows come out in the
+ * order the games finish. Each row is written as soon as its game ends.
+ *
+ * <pre>
+ * java Example.Tournament [-strategies autopilot,greedy] [-levels 1,2,3]
+ *     [-seeds 100] [-seed 0] [-size 40x30] [-ticks 20000] [-threads n] [-out results.csv]
+ * </pre>
+ */
+public class Tournament {
+    /** The strategies the command line can name. */
+    public static final Map<String, Supplier<Strategy>> STRATEGIES = new LinkedHashMap<>();
+
+    static {
+        STRATEGIES.put("autopilot", Autopilot::new);
+        STRATEGIES.put("lookahead", () -> new Lookahead(SharedTable.TABLE, 8, 4));
+        STRATEGIES.put("greedy", Greedy::new);
+        STRATEGIES.put("straight", () -> engine -> GameEngine.NONE);
+    }
+
+    public static final String CSV_HEADER = "strategy,level,seed,score,length,ticks,death";
+
+    private static final long TICK_MILLIS = 100;
+    // games a task plays itself rather than splitting
+    private static final int GRAIN = 4;
+    private static final GameEngine.Outcome[] OUTCOMES = GameEngine.Outcome.values();
+
+    private final List<String> names;
+    private final List<Supplier<Strategy>> strategies;
+    private final int[] levels;
+    private final long firstSeed;
+    private final int seeds;
+    private final int cols, rows, maxTicks;
+
+    // per strategy and level, at [strategy * levels.length + level]
+    private final long[] games, totalScore, totalTicks;
+    private final double[] totalScoreSquared;
+    private final int[] bestScore;
+    // ends per strategy and level, then per outcome; RUNNING counts games that ran out of ticks
+    private final int[] ends;
+    private PrintWriter out;
+
+    /**
+     * A tournament of {@code strategies}, named by {@code names}, on each
+     * of {@code levels} with seeds {@code firstSeed} up to but not
+     * including {@code firstSeed + seeds}. Games still going after
+     * {@code maxTicks} are stopped there.
+     */
+    public Tournament(List<String> names, List<Supplier<Strategy>> strategies, int[] levels,
+                      long firstSeed, int seeds, int cols, int rows, int maxTicks) {
+        if (names.size() != strategies.size()) {
+            throw new IllegalArgumentException(names.size() + " names for " + strategies.size() + " strategies");
+        }
+        this.names = new ArrayList<>(names);
+        this.strategies = new ArrayList<>(strategies);
+        this.levels = levels.clone();
+        this.firstSeed = firstSeed;
+        this.seeds = seeds;
+        this.cols = cols;
+        this.rows = rows;
+        this.maxTicks = maxTicks;
+        int groups = strategies.size() * levels.length;
+        games = new long[groups];
+        totalScore = new long[groups];
+        totalTicks = new long[groups];
+        totalScoreSquared = new double[groups];
+        bestScore = new int[groups];
+        ends = new int[groups * OUTCOMES.length];
+    }
+
+    public int getGameCount() {
+        return strategies.size() * levels.length * seeds;
+    }
+
+    /** Plays every game on {@code pool}, writing a CSV row for each to {@code out} if it is not null. */
+    public void run(ForkJoinPool pool, PrintWriter out) {
+        this.out = out;
+        if (out != null) {
+            out.println(CSV_HEADER);
+        }
+        pool.invoke(new Games(0, getGameCount()));
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    private class Games extends RecursiveAction {
+        private static final long serialVersionUID = 992348908534430180L;
+
+        private final int from, to;
+
+        Games(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > GRAIN) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Games(from, middle), new Games(middle, to));
+                return;
+            }
+            GameEngine engine = new GameEngine(cols, rows, new GameRandom(), TICK_MILLIS);
+            Strategy strategy = null;
+            int strategyIndex = -1;
+            for (int game = from; game < to; game++) {
+                int s = game / (levels.length * seeds);
+                int level = game / seeds % levels.length;
+                if (s != strategyIndex) {
+                    strategy = strategies.get(s).get();
+                    strategyIndex = s;
+                }
+                play(engine, strategy, s, level, firstSeed + game % seeds);
+            }
+        }
+    }
+
+    private void play(GameEngine engine, Strategy strategy, int s, int level, long seed) {
+        engine.restart(seed, levels[level]);
+        GameEngine.Outcome outcome = GameEngine.Outcome.RUNNING;
+        while (!outcome.isDeath() && (maxTicks <= 0 || engine.getTick() < maxTicks)) {
+            outcome = engine.step(strategy.decide(engine));
+        }
+        if (!outcome.isDeath()) {
+            outcome = GameEngine.Outcome.RUNNING;
+        }
+        record(s, level, seed, engine.getScore(), engine.getLength(), engine.getTick(), outcome);
+    }
+
+    private synchronized void record(int s, int level, long seed, int score, int length, long ticks,
+                                     GameEngine.Outcome outcome) {
+        int group = s * levels.length + level;
+        games[group]++;
+        totalScore[group] += score;
+        totalScoreSquared[group] += (double) score * score;
+        totalTicks[group] += ticks;
+        bestScore[group] = Math.max(bestScore[group], score);
+        ends[group * OUTCOMES.length + outcome.ordinal()]++;
+        if (out != null) {
+            out.println(names.get(s) + ',' + levels[level] + ',' + seed + ',' + score + ',' + length + ','
+                    + ticks + ',' + cause(outcome));
+        }
+    }
+
+    /** What a game ended with, as written in the results. */
+    public static String cause(GameEngine.Outcome outcome) {
+        return outcome.isDeath() ? outcome.name() : "OUT_OF_TICKS";
+    }
+
+    /** A table of each strategy on each level: games, score mean, spread and best, ticks and how games ended. */
+    public synchronized String summary() {
+        StringBuilder text = new StringBuilder(String.format("%-12s %5s %6s %9s %9s %7s %9s",
+                "strategy", "level", "games", "score", "+-", "best", "ticks"));
+        for (GameEngine.Outcome outcome : OUTCOMES) {
+            if (outcome != GameEngine.Outcome.ATE) {
+                text.append(String.format(" %13s", cause(outcome)));
+            }
+        }
+        text.append('\n');
+        for (int s = 0; s < strategies.size(); s++) {
+            for (int level = 0; level < levels.length; level++) {
+                int group = s * levels.length + level;
+                long n = Math.max(games[group], 1);
+                double mean = (double) totalScore[group] / n;
+                double spread = Math.sqrt(Math.max(0, totalScoreSquared[group] / n - mean * mean));
+                text.append(String.format("%-12s %5d %6d %9.1f %9.1f %7d %9.0f", names.get(s), levels[level],
+                        games[group], mean, spread, bestScore[group], (double) totalTicks[group] / n));
+                for (GameEngine.Outcome outcome : OUTCOMES) {
+                    if (outcome != GameEngine.Outcome.ATE) {
+                        text.append(String.format(" %13d", ends[group * OUTCOMES.length + outcome.ordinal()]));
+                    }
+                }
+                text.append('\n');
+            }
+        }
+        return text.toString();
+    }
+
+    /** One table for every lookahead player in the tournament, made the first time one is. */
+    private static class SharedTable {
+        static final TranspositionTable TABLE = new TranspositionTable(1 << 20);
+    }
+
+    /** Heads for the food, not turning into anything solid if it can help it; a yardstick for better ones. */
+    private static class Greedy implements Strategy {
+        private static final int[] STEP_X = {0, 1, 0, -1};
+        private static final int[] STEP_Y = {-1, 0, 1, 0};
+
+        @Override
+        public int decide(GameEngine engine) {
+            OccupancyGrid grid = engine.getGrid();
+            int best = GameEngine.NONE, bestDistance = Integer.MAX_VALUE;
+            for (int d = 0; d < 4; d++) {
+                int x = engine.getHeadX() + STEP_X[d], y = engine.getHeadY() + STEP_Y[d];
+                if (d == GameEngine.opposite(engine.getDirection()) || !grid.inside(x, y)
+                        || grid.has(x, y, OccupancyGrid.BLOCKED)) {
+                    continue;
+                }
+                int distance = engine.getFoodX() < 0 ? 0
+                        : Math.abs(engine.getFoodX() - x) + Math.abs(engine.getFoodY() - y);
+                if (distance < bestDistance) {
+                    best = d;
+                    bestDistance = distance;
+                }
+            }
+            return best;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        String strategyNames = "autopilot,greedy";
+        String levelList = "1,2,3";
+        int seeds = 100;
+        long firstSeed = 0;
+        int cols = 40, rows = 30, maxTicks = 20_000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String outFile = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "-strategies":
+                    strategyNames = value;
+                    break;
+                case "-levels":
+                    levelList = value;
+                    break;
+                case "-seeds":
+                    seeds = Integer.parseInt(value);
+                    break;
+                case "-seed":
+                    firstSeed = Long.parseLong(value);
+                    break;
+                case "-size":
+                    cols = Integer.parseInt(value.substring(0, value.indexOf('x')));
+                    rows = Integer.parseInt(value.substring(value.indexOf('x') + 1));
+                    break;
+                case "-ticks":
+                    maxTicks = Integer.parseInt(value);
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "-out":
+                    outFile = value;
+                    break;
+                default:
+                    System.err.println("Unknown option " + args[i]);
+                    return;
+            }
+        }
+
+        List<String> names = new ArrayList<>();
+        List<Supplier<Strategy>> strategies = new ArrayList<>();
+        for (String name : strategyNames.split(",")) {
+            Supplier<Strategy> strategy = STRATEGIES.get(name);
+            if (strategy == null) {
+                System.err.println("Unknown strategy " + name + ", try one of " + STRATEGIES.keySet());
+                return;
+            }
+            names.add(name);
+            strategies.add(strategy);
+        }
+        String[] levelNames = levelList.split(",");
+        int[] levels = new int[levelNames.length];
+        for (int i = 0; i < levels.length; i++) {
+            levels[i] = Integer.parseInt(levelNames[i]);
+        }
+
+        Tournament tournament = new Tournament(names, strategies, levels, firstSeed, seeds, cols, rows, maxTicks);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        try (PrintWriter out = outFile != null ? new PrintWriter(new BufferedWriter(new FileWriter(outFile))) : null) {
+            tournament.run(pool, out);
+        } finally {
+            pool.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.print(tournament.summary());
+        System.out.printf("%d games on %dx%d in %.1f s on %d thread(s)%n",
+                tournament.getGameCount(), cols, rows, seconds, threads);
+    }
+}
@@ -0,0 +1,158 @@
+package Example;
+
+/**
+ *
+ * @Project Snakee
+ * @Description Every spot the smooth snake's head has been, newest first,
+ *              with a count per spot so crossing the trail is noticed
+ *              without comparing every point with every other one
+ */
+
+public class TrailBuffer
+{
+	private final SnakeBody points = new SnakeBody(256);
+
+	// open addressing: spot -> how many times it is in the trail, 0 = free slot
+	private int[] keys = new int[512];
+	private int[] counts = new int[512];
+	private int distinct;
+	private int repeats;
+
+	public int size()
+	{
+		return points.length();
+	}
+
+	/** Point {@code i} counting back from the newest, which is 0. */
+	public int getX(int i)
+	{
+		return SnakeBody.x(points.get(i));
+	}
+
+	public int getY(int i)
+	{
+		return SnakeBody.y(points.get(i));
+	}
+
+	public void add(int x, int y)
+	{
+		int point = SnakeBody.pack(x, y);
+		points.pushHead(point);
+		if (increment(point) > 1)
+		{
+			repeats++;
+		}
+	}
+
+	public void removeOldest()
+	{
+		if (decrement(points.popTail()) > 0)
+		{
+			repeats--;
+		}
+	}
+
+	/** Whether any spot is in the trail more than once. */
+	public boolean crossesItself()
+	{
+		return repeats > 0;
+	}
+
+	public boolean contains(int x, int y)
+	{
+		return counts[find(SnakeBody.pack(x, y))] > 0;
+	}
+
+	public void clear()
+	{
+		points.clear();
+		keys = new int[512];
+		counts = new int[512];
+		distinct = 0;
+		repeats = 0;
+	}
+
+	private int find(int point)
+	{
+		int mask = keys.length - 1;
+		int slot = mix(point) & mask;
+		while (counts[slot] != 0 && keys[slot] != point)
+		{
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private int increment(int point)
+	{
+		int slot = find(point);
+		if (counts[slot] == 0)
+		{
+			keys[slot] = point;
+			if (++distinct * 2 > keys.length)
+			{
+				counts[slot] = 1;
+				rehash(keys.length << 1);
+				return 1;
+			}
+		}
+		return ++counts[slot];
+	}
+
+	private int decrement(int point)
+	{
+		int slot = find(point);
+		int left = --counts[slot];
+		if (left == 0)
+		{
+			distinct--;
+			shiftBack(slot);
+		}
+		return left;
+	}
+
+	/*
+	 * Pulls later entries back into a freed slot so lookups that used to
+	 * probe past it still find their keys.
+	 */
+	private void shiftBack(int hole)
+	{
+		int mask = keys.length - 1;
+		int slot = (hole + 1) & mask;
+		while (counts[slot] != 0)
+		{
+			int home = mix(keys[slot]) & mask;
+			if (((slot - home) & mask) >= ((slot - hole) & mask))
+			{
+				keys[hole] = keys[slot];
+				counts[hole] = counts[slot];
+				counts[slot] = 0;
+				hole = slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	private void rehash(int capacity)
+	{
+		int[] oldKeys = keys;
+		int[] oldCounts = counts;
+		keys = new int[capacity];
+		counts = new int[capacity];
+		for (int i = 0; i < oldKeys.length; i++)
+		{
+			if (oldCounts[i] != 0)
+			{
+				int slot = find(oldKeys[i]);
+				keys[slot] = oldKeys[i];
+				counts[slot] = oldCounts[i];
+			}
+		}
+	}
+
+	private static int mix(int point)
+	{
+		int h = point * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
@@ -0,0 +1,127 @@
+package Example;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed size table of search results keyed by {@link Zobrist} hash,
+ * for a search to look up positions it has already scored, in this tick
+ * or an earlier one. Any number of threads can read and write it at once
+ * without locks.
+ *
+ * Each entry is two longs: the result packed into one, and the hash xor
+ * the result in the other. A reader only believes an entry when the two
+ * xor back to the hash it asked for, so a half written entry, torn by
+ * another thread writing at the same time, reads as a miss rather than
+ * as somebody else's result.
+ *
+ * Hashes share buckets of two entries. The first keeps the deepest result
+ * from the current search, unless it is stale from an earlier one; the
+ * second takes whatever the first will not, so recent results always get
+ * in somewhere.
+ */
+public class TranspositionTable {
+    /** The value is the position's score. */
+    public static final int EXACT = 0;
+    /** The score is at least the value. */
+    public static final int LOWER = 1;
+    /** The score is at most the value. */
+    public static final int UPPER = 2;
+
+    /** What {@link #probe} returns for a position the table does not hold. */
+    public static final long MISS = 0;
+
+    // value in the low 32 bits, then depth, bound, move + 1 and generation
+    private static final int DEPTH_SHIFT = 32, BOUND_SHIFT = 40, MOVE_SHIFT = 42, GENERATION_SHIFT = 45;
+    private static final long VALID = 1L << 63;
+    private static final int MAX_DEPTH = 255;
+
+    // per bucket: entry one's check and data, then entry two's
+    private final AtomicLongArray slots;
+    private final int mask;
+    private volatile int generation;
+
+    /** A table of at least {@code entries} entries, rounded up to a power of two. */
+    public TranspositionTable(int entries) {
+        int buckets = Integer.highestOneBit(Math.max(entries / 2, 1) * 2 - 1);
+        slots = new AtomicLongArray(buckets * 4);
+        mask = buckets - 1;
+    }
+
+    public int capacity() {
+        return slots.length() / 2;
+    }
+
+    /**
+     * Starts a new search: results from earlier ones stay and can be
+     * found, but give way to new ones.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /** The packed result for {@code hash}, or {@link #MISS}. */
+    public long probe(long hash) {
+        int at = bucket(hash);
+        for (int entry = 0; entry < 4; entry += 2) {
+            long data = slots.getOpaque(at + entry + 1);
+            if (data != MISS && (slots.getOpaque(at + entry) ^ data) == hash) {
+                return data;
+            }
+        }
+        return MISS;
+    }
+
+    /**
+     * Keeps {@code value} as the result of searching {@code depth} moves
+     * on from the position {@code hash}, {@code bound} saying what kind of
+     * result it is and {@code move} the best move found, or
+     * {@link GameEngine#NONE}.
+     */
+    public void store(long hash, int depth, int value, int bound, int move) {
+        int current = generation;
+        long data = VALID | (value & 0xFFFFFFFFL)
+                | (long) Math.min(depth, MAX_DEPTH) << DEPTH_SHIFT
+                | (long) bound << BOUND_SHIFT
+                | (long) (move + 1) << MOVE_SHIFT
+                | (long) current << GENERATION_SHIFT;
+        int at = bucket(hash);
+        long old = slots.getOpaque(at + 1);
+        boolean same = old != MISS && (slots.getOpaque(at) ^ old) == hash;
+        if (old == MISS || same || depth >= depth(old) || generation(old) != current) {
+            write(at, hash, data);
+        } else {
+            write(at + 2, hash, data);
+        }
+    }
+
+    private void write(int at, long hash, long data) {
+        slots.setOpaque(at + 1, data);
+        slots.setOpaque(at, hash ^ data);
+    }
+
+    private int bucket(long hash) {
+        // the low bits pick the bucket and the check covers the rest
+        return ((int) (hash ^ hash >>> 32) & mask) * 4;
+    }
+
+    public static int value(long data) {
+        return (int) data;
+    }
+
+    public static int depth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    public static int bound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 3;
+    }
+
+    /** The best move kept with the result, or {@link GameEngine#NONE}. */
+    public static int move(long data) {
+        return ((int) (data >>> MOVE_SHIFT) & 7) - 1;
+    }
+
+    private static int generation(long data) {
+        return (int) (data >>> GENERATION_SHIFT) & 0xFF;
+    }
+}
@@ -0,0 +1,235 @@
+package Example;
+
+import java.util.Random;
+
+/**
+ * The snake game on a {@link ChunkedWorld}: the same moves, growth and
+ * deaths as {@link GameEngine}, without the red dot. Every lookup is a
+ * read of the one chunk holding the head, so a tick costs the same on any
+ * size of world. Food is put in a chunk near the head, and after each
+ * tick chunks more than {@link #KEEP_CHUNKS} from the head are let go.
+ */
+public class WorldEngine {
+    /** Chunks kept loaded around the head in each direction. */
+    public static final int KEEP_CHUNKS = 2;
+
+    private static final int START_SIZE = 3;
+    private static final int NO_CELL = Integer.MIN_VALUE;
+
+    private final ChunkedWorld world;
+    private final Random random;
+    private final SnakeBody body = new SnakeBody();
+    private int direction = GameEngine.RIGHT;
+    private int size;
+    private int score;
+    private long tick;
+    private int vacated = NO_CELL;
+    private int foodX = -1, foodY = -1;
+    private int foodKind;
+    private int evictedAround = NO_CELL;
+    private Profiler profiler;
+
+    public WorldEngine(ChunkedWorld world, Random random) {
+        this.world = world;
+        this.random = random;
+        reset();
+    }
+
+    /** Puts the snake back in the middle of the world and places the food. */
+    public void reset() {
+        removeSnakeAndFood();
+        size = START_SIZE;
+        score = 0;
+        tick = 0;
+        vacated = NO_CELL;
+        evictedAround = NO_CELL;
+        direction = GameEngine.RIGHT;
+        int startX = world.getStartX(), startY = world.getStartY();
+        for (int i = 0; i < size; i++) {
+            int x = Math.max(startX - i, 0);
+            body.pushTail(SnakeBody.pack(x, startY));
+            world.set(x, startY, OccupancyGrid.BODY);
+        }
+        repositionFood();
+    }
+
+    /** Lays the world out as {@code level} and starts over. */
+    public void loadLevel(int level) {
+        // the chunks holding the snake and food are about to go, so let go of them first
+        removeSnakeAndFood();
+        world.setLevel(level);
+        reset();
+    }
+
+    private void removeSnakeAndFood() {
+        for (int i = 0; i < body.length(); i++) {
+            world.clear(SnakeBody.x(body.get(i)), SnakeBody.y(body.get(i)), OccupancyGrid.BODY);
+        }
+        body.clear();
+        if (foodX >= 0) {
+            world.clear(foodX, foodY, OccupancyGrid.FOOD);
+            foodX = foodY = -1;
+        }
+    }
+
+    public boolean turn(int newDirection) {
+        if (newDirection < GameEngine.UP || newDirection > GameEngine.LEFT
+                || newDirection == GameEngine.opposite(direction)) {
+            return false;
+        }
+        direction = newDirection;
+        return true;
+    }
+
+    /** Times the move and collision phases of {@link #step} into {@code profiler}; null turns timing off. */
+    public void setProfiler(Profiler profiler) {
+        this.profiler = profiler;
+    }
+
+    public GameEngine.Outcome step() {
+        tick++;
+        vacated = NO_CELL;
+        long lap = profiler != null ? System.nanoTime() : 0;
+        int headX = SnakeBody.x(body.head()), headY = SnakeBody.y(body.head());
+        switch (direction) {
+            case GameEngine.UP:
+                headY--;
+                break;
+            case GameEngine.DOWN:
+                headY++;
+                break;
+            case GameEngine.LEFT:
+                headX--;
+                break;
+            case GameEngine.RIGHT:
+                headX++;
+                break;
+        }
+        if (!world.inside(headX, headY)) {
+            return GameEngine.Outcome.HIT_WALL;
+        }
+        if (body.length() >= size) {
+            int tail = body.popTail();
+            vacated = tail;
+            world.clear(SnakeBody.x(tail), SnakeBody.y(tail), OccupancyGrid.BODY);
+        }
+        byte hit = world.get(headX, headY);
+        body.pushHead(SnakeBody.pack(headX, headY));
+        world.set(headX, headY, OccupancyGrid.BODY);
+        if (profiler != null) {
+            lap = profiler.lap(Profiler.MOVE, lap);
+        }
+
+        GameEngine.Outcome outcome = GameEngine.Outcome.RUNNING;
+        if ((hit & OccupancyGrid.FOOD) != 0) {
+            size++;
+            score += 10;
+            repositionFood();
+            outcome = GameEngine.Outcome.ATE;
+        }
+        if (profiler != null) {
+            profiler.lap(Profiler.COLLISION, lap);
+        }
+        int chunk = SnakeBody.pack(headX / ChunkedWorld.CHUNK, headY / ChunkedWorld.CHUNK);
+        if (chunk != evictedAround) {
+            // only worth a look over the loaded chunks when the head moves to another one
+            evictedAround = chunk;
+            world.evict(headX, headY, KEEP_CHUNKS);
+        }
+        if ((hit & OccupancyGrid.BODY) != 0) {
+            return GameEngine.Outcome.HIT_SELF;
+        }
+        if ((hit & OccupancyGrid.OBSTACLE) != 0) {
+            return GameEngine.Outcome.HIT_OBSTACLE;
+        }
+        return outcome;
+    }
+
+    /**
+     * Moves the food to an empty cell in a chunk next to the head's, or
+     * the head's own, so it is never far away.
+     */
+    public void repositionFood() {
+        if (foodX >= 0) {
+            world.clear(foodX, foodY, OccupancyGrid.FOOD);
+            foodX = foodY = -1;
+        }
+        foodKind = random.nextInt(GameEngine.FOOD_KINDS);
+        int headX = getHeadX(), headY = getHeadY();
+        for (int tries = 0; tries < 8; tries++) {
+            int x = headX + (random.nextInt(3) - 1) * ChunkedWorld.CHUNK;
+            int y = headY + (random.nextInt(3) - 1) * ChunkedWorld.CHUNK;
+            int cell;
+            if (world.inside(x, y) && (cell = world.randomEmptyCell(x, y, random)) != -1) {
+                foodX = SnakeBody.x(cell);
+                foodY = SnakeBody.y(cell);
+                world.set(foodX, foodY, OccupancyGrid.FOOD);
+                return;
+            }
+        }
+    }
+
+    public ChunkedWorld getWorld() {
+        return world;
+    }
+
+    public int getDirection() {
+        return direction;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public int getLength() {
+        return body.length();
+    }
+
+    public int getSegmentX(int i) {
+        return SnakeBody.x(body.get(i));
+    }
+
+    public int getSegmentY(int i) {
+        return SnakeBody.y(body.get(i));
+    }
+
+    /** See {@link GameEngine#getPreviousSegmentX}. */
+    public int getPreviousSegmentX(int i) {
+        if (i + 1 < body.length()) {
+            return getSegmentX(i + 1);
+        }
+        return vacated == NO_CELL ? getSegmentX(i) : SnakeBody.x(vacated);
+    }
+
+    public int getPreviousSegmentY(int i) {
+        if (i + 1 < body.length()) {
+            return getSegmentY(i + 1);
+        }
+        return vacated == NO_CELL ? getSegmentY(i) : SnakeBody.y(vacated);
+    }
+
+    public int getHeadX() {
+        return getSegmentX(0);
+    }
+
+    public int getHeadY() {
+        return getSegmentY(0);
+    }
+
+    /** Food cell, or -1 if there was nowhere to put it. */
+    public int getFoodX() {
+        return foodX;
+    }
+
+    public int getFoodY() {
+        return foodY;
+    }
+
+    public int getFoodKind() {
+        return foodKind;
+    }
+}
@@ -0,0 +1,119 @@
+package Example;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.image.BufferedImage;
+
+/**
+ * Draws a {@link WorldEngine} through a {@link Camera} that follows the
+ * head. Only chunks that overlap the view are visited for bricks, and
+ * sprites out of view are skipped, so a frame costs the same however big
+ * the world is.
+ */
+public class WorldRenderer {
+    private static final Font SCORE_FONT = new Font(Font.SANS_SERIF, Font.BOLD, 30);
+
+    private final SpriteAtlas atlas;
+    private final Camera camera = new Camera();
+    private final ChunkedWorld.ChunkVisitor drawBricks = this::drawBricks;
+    // what drawBricks draws with, set for the length of a frame
+    private Graphics g;
+    private int brick;
+    private int chunksDrawn;
+    private int scoreShown = -1;
+    private String scoreText;
+    // the background scaled to the view, which stays put while the world scrolls under it
+    private BufferedImage background;
+
+    public WorldRenderer(SpriteAtlas atlas) {
+        this.atlas = atlas;
+    }
+
+    /** Draws a frame {@code alpha} of the way from the engine's last tick to the next. */
+    public void draw(Graphics g, GraphicsConfiguration config, WorldEngine engine, int brick,
+                     int width, int height, double alpha) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        if (engine.getTick() == 0) {
+            alpha = 1;
+        }
+        ChunkedWorld world = engine.getWorld();
+        camera.follow(between(engine.getPreviousSegmentX(0), engine.getHeadX(), alpha) + GameEngine.CELL / 2,
+                between(engine.getPreviousSegmentY(0), engine.getHeadY(), alpha) + GameEngine.CELL / 2,
+                width, height, world.getCols() * GameEngine.CELL, world.getRows() * GameEngine.CELL);
+        if (background == null || background.getWidth() != width || background.getHeight() != height) {
+            background = config != null
+                    ? config.createCompatibleImage(width, height)
+                    : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D bg = background.createGraphics();
+            atlas.draw(bg, SpriteAtlas.BACKGROUND, 0, 0, width, height);
+            bg.dispose();
+        }
+        g.drawImage(background, 0, 0, null);
+
+        g.translate(-camera.getX(), -camera.getY());
+        this.g = g;
+        this.brick = brick;
+        chunksDrawn = 0;
+        world.forEachChunk(camera.firstCol(), camera.firstRow(), camera.lastCol(), camera.lastRow(), drawBricks);
+        this.g = null;
+        if (engine.getFoodX() >= 0) {
+            drawVisible(g, SpriteAtlas.FOOD + engine.getFoodKind(),
+                    engine.getFoodX() * GameEngine.CELL, engine.getFoodY() * GameEngine.CELL);
+        }
+        drawSnake(g, engine, alpha);
+        g.translate(camera.getX(), camera.getY());
+
+        g.setFont(SCORE_FONT);
+        g.setColor(Color.MAGENTA);
+        if (engine.getScore() != scoreShown) {
+            scoreShown = engine.getScore();
+            scoreText = "Score: " + scoreShown;
+        }
+        g.drawString(scoreText, 20, 40);
+    }
+
+    private void drawBricks(ChunkedWorld.Chunk chunk) {
+        chunksDrawn++;
+        for (int i = 0; i < chunk.getBrickCount(); i++) {
+            drawVisible(g, brick, chunk.getBrickX(i) * GameEngine.CELL, chunk.getBrickY(i) * GameEngine.CELL);
+        }
+    }
+
+    private void drawSnake(Graphics g, WorldEngine engine, double alpha) {
+        int x = engine.getHeadX(), y = engine.getHeadY();
+        drawVisible(g, SpriteAtlas.SNAKE_HEAD + engine.getDirection(),
+                between(engine.getPreviousSegmentX(0), x, alpha), between(engine.getPreviousSegmentY(0), y, alpha));
+        for (int i = 1; i < engine.getLength(); i++) {
+            int nextX = x, nextY = y;
+            x = engine.getSegmentX(i);
+            y = engine.getSegmentY(i);
+            drawVisible(g, SpriteAtlas.SNAKE_BODY + GameEngine.directionBetween(x, y, nextX, nextY),
+                    between(engine.getPreviousSegmentX(i), x, alpha), between(engine.getPreviousSegmentY(i), y, alpha));
+        }
+    }
+
+    private void drawVisible(Graphics g, int sprite, int x, int y) {
+        if (camera.sees(x, y, Math.max(GameEngine.CELL, atlas.width(sprite)),
+                Math.max(GameEngine.CELL, atlas.height(sprite)))) {
+            atlas.draw(g, sprite, x, y);
+        }
+    }
+
+    public Camera getCamera() {
+        return camera;
+    }
+
+    /** Chunks looked at for bricks in the last frame. */
+    public int getChunksDrawn() {
+        return chunksDrawn;
+    }
+
+    private static int between(int fromCell, int toCell, double alpha) {
+        return (int) Math.round((fromCell + (toCell - fromCell) * alpha) * GameEngine.CELL);
+    }
+}
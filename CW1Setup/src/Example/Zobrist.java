@@ -0,0 +1,75 @@
+package Example;
+
+/**
+ * Zobrist keys: a random looking 64 bit key for each thing that can be at
+ * each place on the board. A position's hash is the xor of the keys of
+ * everything in it, so when something moves the hash changes by an xor
+ * out and an xor in, whatever the size of the board.
+ *
+ * Keys are worked out from what and where rather than looked up in a
+ * table, so they cost nothing to set up, fit any board, and are the same
+ * in every engine and thread. Two positions with the same body cells,
+ * head and tail but the body winding between them differently hash the
+ * same; that takes a snake coiled just so and is rare enough to live with.
+ */
+public final class Zobrist {
+    // kinds 0 to 2 are the OccupancyGrid flag bits
+    private static final int HEAD = 3, TAIL = 4, DIRECTION = 5, GROWING = 6;
+    private static final int RED_DOT_X = 7, RED_DOT_Y = 8, RED_DOT_HEADING = 9, SALT = 10, HUNTERS = 11;
+    private static final long SEED = 0x5EEDC0FFEE15BADL;
+
+    private Zobrist() {
+    }
+
+    /** The key for {@code cell} holding the {@link OccupancyGrid} flags {@code flags}. */
+    public static long flags(int cell, int flags) {
+        long key = 0;
+        for (int bits = flags & 0xFF; bits != 0; bits &= bits - 1) {
+            key ^= key(Integer.numberOfTrailingZeros(bits), cell);
+        }
+        return key;
+    }
+
+    public static long head(int cell) {
+        return key(HEAD, cell);
+    }
+
+    public static long tail(int cell) {
+        return key(TAIL, cell);
+    }
+
+    public static long direction(int direction) {
+        return key(DIRECTION, direction);
+    }
+
+    /** The key for a snake with {@code ticks} of growing still to do; none for 0. */
+    public static long growing(int ticks) {
+        return ticks == 0 ? 0 : key(GROWING, ticks);
+    }
+
+    /** The key for a red dot at pixel ({@code px}, {@code py}) moving by ({@code dx}, {@code dy}). */
+    public static long redDot(int px, int py, int dx, int dy) {
+        return key(RED_DOT_X, px) ^ key(RED_DOT_Y, py) ^ key(RED_DOT_HEADING, (dx > 0 ? 1 : 0) | (dy > 0 ? 2 : 0));
+    }
+
+    /** The key for {@code count} hunters on {@code cell}; none for 0. */
+    public static long hunters(int cell, int count) {
+        return count == 0 ? 0 : mix(key(HUNTERS, cell) + count * 0x9E3779B97F4A7C15L);
+    }
+
+    /** A key for anything else a search needs its positions told apart by. */
+    public static long salt(long value) {
+        return key(SALT, (int) value) ^ key(SALT, (int) (value >>> 32) ^ 0x55555555);
+    }
+
+    private static long key(int kind, int index) {
+        return mix(((long) index << 4 | kind) * 0x9E3779B97F4A7C15L + SEED);
+    }
+
+    /** SplitMix64's finaliser, which spreads neighbouring inputs all over the 64 bits. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
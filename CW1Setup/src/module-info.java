@@ -1,5 +1,7 @@
 module CW1Setup {
     opens Example;
     requires java.desktop;
+    requires jdk.jfr;
+    requires jdk.management;
     requires jlayer;
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package Example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ScoreStoreTest {
+    private static final int LEGACY_SCORES = 1000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void importedScoresSurviveCloseAndReload() throws IOException {
+        Path journal = dir.resolve("scores.journal");
+        Path legacy = writeLegacy();
+
+        ScoreStore store = new ScoreStore(journal, legacy);
+        assertEquals(LEGACY_SCORES, store.getLeaderboard().size());
+        store.add(new ScoreStore.Score("new", 5, 1, 1));
+        store.close();
+
+        ScoreStore reloaded = new ScoreStore(journal, legacy);
+        assertEquals(LEGACY_SCORES + 1, reloaded.getLeaderboard().size());
+        assertEquals(LEGACY_SCORES * 10, reloaded.top(1).get(0).score);
+        reloaded.close();
+    }
+
+    @Test
+    void importIsOnDiskBeforeAnythingIsAdded() throws IOException {
+        Path journal = dir.resolve("scores.journal");
+
+        // never closed, as if the game had crashed straight after starting
+        new ScoreStore(journal, writeLegacy());
+        assertTrue(Files.exists(journal));
+
+        ScoreStore reloaded = new ScoreStore(journal, null);
+        assertEquals(LEGACY_SCORES, reloaded.getLeaderboard().size());
+        reloaded.close();
+    }
+
+    private Path writeLegacy() throws IOException {
+        Properties properties = new Properties();
+        for (int i = 1; i <= LEGACY_SCORES; i++) {
+            properties.setProperty("player" + i, String.valueOf(i * 10));
+        }
+        Path legacy = dir.resolve("highscores.properties");
+        try (OutputStream output = Files.newOutputStream(legacy)) {
+            properties.store(output, null);
+        }
+        return legacy;
+    }
+}
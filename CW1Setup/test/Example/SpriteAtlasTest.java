@@ -0,0 +1,39 @@
+package Example;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+
+import org.junit.jupiter.api.Test;
+
+class SpriteAtlasTest {
+    @Test
+    void missingSnakePictureOnlyBlanksItsOwnIds() {
+        Image[] sources = new Image[SpriteAtlas.COUNT];
+        for (int id = 0; id < SpriteAtlas.COUNT; id++) {
+            sources[id] = new BufferedImage(GameEngine.CELL, GameEngine.CELL, BufferedImage.TYPE_INT_ARGB);
+        }
+        SnakeSprites snake = new SnakeSprites(null,
+                new BufferedImage(GameEngine.CELL, GameEngine.CELL, BufferedImage.TYPE_INT_ARGB));
+        for (int direction = GameEngine.UP; direction <= GameEngine.LEFT; direction++) {
+            sources[SpriteAtlas.SNAKE_HEAD + direction] = snake.head(direction);
+            sources[SpriteAtlas.SNAKE_BODY + direction] = snake.body(direction);
+        }
+
+        SpriteAtlas atlas = new SpriteAtlas(null, sources);
+
+        BufferedImage target = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = target.createGraphics();
+        for (int direction = GameEngine.UP; direction <= GameEngine.LEFT; direction++) {
+            assertFalse(atlas.has(SpriteAtlas.SNAKE_HEAD + direction));
+            assertTrue(atlas.has(SpriteAtlas.SNAKE_BODY + direction));
+            atlas.draw(g, SpriteAtlas.SNAKE_HEAD + direction, 0, 0);
+        }
+        assertTrue(atlas.has(SpriteAtlas.FOOD));
+        assertTrue(atlas.has(SpriteAtlas.RED_DOT));
+        g.dispose();
+    }
+}
@@ -0,0 +1,53 @@
+package Example;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** One arena tick, every live snake deciding and moving; divide by the snakes for a snake-tick. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ArenaBenchmarks {
+    @Param({"1000", "10000"})
+    public int snakes;
+
+    @Param({"500", "1000"})
+    public int side;
+
+    /** 0 is one thread per core. */
+    @Param({"1", "0"})
+    public int threads;
+
+    private Arena arena;
+
+    @Setup
+    public void setUp() {
+        int count = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        arena = new Arena(side, side, snakes, 2, 42, count);
+    }
+
+    @TearDown
+    public void tearDown() {
+        arena.close();
+    }
+
+    @Benchmark
+    public int step() {
+        return arena.step();
+    }
+}
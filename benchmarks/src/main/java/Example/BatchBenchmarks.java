@@ -0,0 +1,60 @@
+package Example;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One step of every board in a {@link BatchEnv}, mostly going straight on
+ * with a random turn now and then; divide by the boards for a step.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchBenchmarks {
+    @Param({"16", "256"})
+    public int boards;
+
+    @Param({"40x30", "200x200"})
+    public String board;
+
+    /** Whether the float planes are filled in as well as the bits. */
+    @Param({"false", "true"})
+    public boolean floats;
+
+    private BatchEnv batch;
+    private int[] actions;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        int cols = Integer.parseInt(board.substring(0, board.indexOf('x')));
+        int rows = Integer.parseInt(board.substring(board.indexOf('x') + 1));
+        batch = new BatchEnv(boards, cols, rows, 1, 42, 10_000, floats);
+        actions = new int[boards];
+        random = new Random(11);
+    }
+
+    @Benchmark
+    public long step() {
+        for (int i = 0; i < boards; i++) {
+            actions[i] = random.nextInt(8) == 0 ? random.nextInt(4) : GameEngine.NONE;
+        }
+        batch.step(actions);
+        return batch.getEpisodes();
+    }
+}
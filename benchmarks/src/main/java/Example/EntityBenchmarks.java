@@ -0,0 +1,47 @@
+package Example;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** A tick's worth of work on {@code count} red dots: moving them all, then hit testing the head. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EntityBenchmarks {
+    @Param({"1", "100", "10000"})
+    public int count;
+
+    private Entities entities;
+
+    @Setup
+    public void setUp() {
+        entities = new Entities();
+        Random random = new Random(42);
+        for (int i = 0; i < count; i++) {
+            entities.add(Entities.RED_DOT, Entities.KIND_SPRITE, random.nextInt(780), random.nextInt(580),
+                    random.nextBoolean() ? 2 : -2, random.nextBoolean() ? 2 : -2, Long.MAX_VALUE);
+        }
+    }
+
+    @Benchmark
+    public int updateAndHit() {
+        entities.update(780, 580);
+        entities.expire(0);
+        return entities.hit(400, 300, GameEngine.CELL);
+    }
+}
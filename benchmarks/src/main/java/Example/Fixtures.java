@@ -0,0 +1,71 @@
+package Example;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/** Inputs the benchmarks share: a snake that steers itself, and pictures that need no loading. */
+class Fixtures {
+    /** Keeps the snake running clockwise round the edge of the board. */
+    static int aroundTheEdge(GameEngine engine) {
+        int x = engine.getHeadX(), y = engine.getHeadY();
+        switch (engine.getDirection()) {
+            case GameEngine.RIGHT:
+                return x == engine.getCols() - 1 ? GameEngine.DOWN : GameEngine.NONE;
+            case GameEngine.DOWN:
+                return y == engine.getRows() - 1 ? GameEngine.LEFT : GameEngine.NONE;
+            case GameEngine.LEFT:
+                return x == 0 ? GameEngine.UP : GameEngine.NONE;
+            default:
+                return y == 0 ? GameEngine.RIGHT : GameEngine.NONE;
+        }
+    }
+
+    /** Mostly straight on, turning now and then and whenever the way ahead is blocked. */
+    static void wander(WorldEngine engine, Random turns) {
+        ChunkedWorld world = engine.getWorld();
+        int direction = engine.getDirection();
+        if (turns.nextInt(40) == 0) {
+            direction = (direction + (turns.nextBoolean() ? 1 : 3)) & 3;
+        }
+        for (int tries = 0; tries < 4; tries++, direction = (direction + 1) & 3) {
+            int x = engine.getHeadX() + (direction == GameEngine.RIGHT ? 1 : direction == GameEngine.LEFT ? -1 : 0);
+            int y = engine.getHeadY() + (direction == GameEngine.DOWN ? 1 : direction == GameEngine.UP ? -1 : 0);
+            if (world.inside(x, y) && (world.get(x, y) & OccupancyGrid.BLOCKED) == 0 && engine.turn(direction)) {
+                return;
+            }
+        }
+    }
+
+    /** Flat stand-ins the same size as the game's pictures, so runs do not depend on the assets loading. */
+    static Image[] syntheticSprites() {
+        Image[] sources = new Image[SpriteAtlas.COUNT];
+        for (int kind = 0; kind < GameEngine.FOOD_KINDS; kind++) {
+            sources[SpriteAtlas.FOOD + kind] = sprite(32, 32, 0xFF8800 + kind);
+        }
+        for (int level = 0; level < 3; level++) {
+            sources[SpriteAtlas.BRICK + level] = sprite(45, 42, 0x884422);
+        }
+        for (int direction = GameEngine.UP; direction <= GameEngine.LEFT; direction++) {
+            sources[SpriteAtlas.SNAKE_HEAD + direction] = sprite(25, 25, 0x33AA33);
+            sources[SpriteAtlas.SNAKE_BODY + direction] = sprite(25, 25, 0x66CC66);
+        }
+        sources[SpriteAtlas.BACKGROUND] = sprite(900, 600, 0x223344);
+        sources[SpriteAtlas.GAME_OVER] = sprite(600, 315, 0x000000);
+        sources[SpriteAtlas.START_SCENE] = sprite(1680, 1050, 0x000000);
+        sources[SpriteAtlas.HUNTER] = sprite(20, 20, 0x8E24AA);
+        sources[SpriteAtlas.RED_DOT] = sprite(20, 20, 0xFF0000);
+        return sources;
+    }
+
+    private static BufferedImage sprite(int width, int height, int rgb) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(new Color(rgb));
+        g.fillOval(0, 0, width, height);
+        g.dispose();
+        return image;
+    }
+}
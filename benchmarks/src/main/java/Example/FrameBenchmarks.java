@@ -0,0 +1,66 @@
+package Example;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A whole in-game frame of the 800x600 panel drawn into an offscreen
+ * {@link BufferedImage}, clipped to {@code clip} the way a dirty-region
+ * paint is. The sprites are plain discs, so no pictures need loading.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class FrameBenchmarks {
+    @Param({"800x600", "60x60"})
+    public String clip;
+
+    private GameEngine engine;
+    private BoardRenderer renderer;
+    private Graphics2D g;
+
+    @Setup
+    public void setUp() {
+        long[] now = {0};
+        engine = new GameEngine(40, 30, new Random(7), () -> now[0]);
+        engine.loadLevel(1);
+        for (int i = 0; i < 50; i++) {
+            now[0] += 100;
+            if (engine.step(Fixtures.aroundTheEdge(engine)).isDeath()) {
+                engine.reset();
+            }
+        }
+        renderer = new BoardRenderer(new SpriteAtlas(null, Fixtures.syntheticSprites()));
+        g = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB).createGraphics();
+        g.setClip(0, 0, Integer.parseInt(clip.substring(0, clip.indexOf('x'))),
+                Integer.parseInt(clip.substring(clip.indexOf('x') + 1)));
+    }
+
+    @TearDown
+    public void tearDown() {
+        g.dispose();
+    }
+
+    @Benchmark
+    public void frame() {
+        renderer.draw(g, null, engine, SpriteAtlas.BRICK, 800, 600, 1);
+    }
+}
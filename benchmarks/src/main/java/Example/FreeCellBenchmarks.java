@@ -0,0 +1,75 @@
+package Example;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Putting the food down on a square board with a share of it covered in
+ * bricks, by picking from the free cell set and, for comparison, by
+ * trying random cells until an empty one turns up.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FreeCellBenchmarks {
+    @Param({"40", "1000"})
+    public int side;
+
+    @Param({"0.5", "0.95", "0.999"})
+    public double full;
+
+    private OccupancyGrid grid;
+    private FreeCellSet free;
+    private Random random;
+    private int food;
+
+    @Setup
+    public void setUp() {
+        grid = new OccupancyGrid(side, side);
+        random = new Random(42);
+        int bricks = (int) (side * side * full);
+        for (int i = 0; i < side * side && grid.getFreeCells().size() > side * side - bricks; i++) {
+            int cell = grid.getFreeCells().get(random.nextInt(grid.getFreeCells().size()));
+            grid.set(cell % side, cell / side, OccupancyGrid.OBSTACLE);
+        }
+        free = grid.getFreeCells();
+        food = free.get(0);
+        grid.set(food % side, food / side, OccupancyGrid.FOOD);
+    }
+
+    @Benchmark
+    public int place() {
+        grid.clear(food % side, food / side, OccupancyGrid.FOOD);
+        food = free.get(random.nextInt(free.size()));
+        grid.set(food % side, food / side, OccupancyGrid.FOOD);
+        return food;
+    }
+
+    @Benchmark
+    public int retry() {
+        grid.clear(food % side, food / side, OccupancyGrid.FOOD);
+        int x, y;
+        do {
+            x = random.nextInt(side);
+            y = random.nextInt(side);
+        } while (grid.get(x, y) != OccupancyGrid.EMPTY);
+        food = grid.index(x, y);
+        grid.set(x, y, OccupancyGrid.FOOD);
+        return food;
+    }
+}
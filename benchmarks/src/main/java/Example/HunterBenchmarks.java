@@ -0,0 +1,119 @@
+package Example;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Hunters scattered over a 200x200 board with one cell in ten a brick,
+ * chasing a target that swaps between opposite corners every move, so
+ * they stay spread out and each search covers most of the board. All of
+ * them following one shared flow field, and for comparison a search of
+ * their own for each.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HunterBenchmarks {
+    private static final int SIDE = 200;
+
+    @State(Scope.Thread)
+    public static class Board {
+        OccupancyGrid grid;
+        int[] targets;
+        long moves;
+
+        @Setup
+        public void setUp() {
+            grid = new OccupancyGrid(SIDE, SIDE);
+            Random random = new Random(42);
+            for (int i = 0; i < SIDE * SIDE / 10; i++) {
+                grid.set(random.nextInt(SIDE), random.nextInt(SIDE), OccupancyGrid.OBSTACLE);
+            }
+            targets = new int[]{grid.index(0, 0), grid.index(SIDE - 1, SIDE - 1)};
+            for (int target : targets) {
+                grid.clear(target % SIDE, target / SIDE, OccupancyGrid.OBSTACLE);
+            }
+        }
+
+        int nextTarget() {
+            return targets[(int) (moves++ & 1)];
+        }
+
+        Hunters scatter(int count) {
+            Random random = new Random(43);
+            Hunters hunters = new Hunters(SIDE, SIDE);
+            while (hunters.count() < count) {
+                int cell = random.nextInt(SIDE * SIDE);
+                if (grid.get(cell) == OccupancyGrid.EMPTY) {
+                    hunters.add(cell);
+                }
+            }
+            return hunters;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Chasing {
+        @Param({"1", "100", "10000"})
+        public int count;
+
+        Hunters hunters;
+
+        @Setup
+        public void setUp(Board board) {
+            hunters = board.scatter(count);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Searching {
+        @Param({"1", "10", "100"})
+        public int searchers;
+
+        FlowField flow;
+        int[] cells;
+        final int[] one = new int[1];
+
+        @Setup
+        public void setUp(Board board) {
+            Hunters hunters = board.scatter(searchers);
+            flow = new FlowField(SIDE, SIDE);
+            cells = new int[searchers];
+            for (int i = 0; i < searchers; i++) {
+                cells[i] = hunters.getCell(i);
+            }
+        }
+    }
+
+    /** One move of every hunter along the flow field, searched once for them all. */
+    @Benchmark
+    public int chase(Board board, Chasing chasing) {
+        boolean caught = chasing.hunters.chase(board.grid, board.nextTarget(), board.moves);
+        return (caught ? 1 : 0) + chasing.hunters.getFlow().getVisited();
+    }
+
+    @Benchmark
+    public int searchEach(Board board, Searching searching) {
+        int target = board.nextTarget();
+        for (int i = 0; i < searching.searchers; i++) {
+            searching.one[0] = searching.cells[i];
+            searching.flow.compute(board.grid, target, OccupancyGrid.BLOCKED, searching.one, 1);
+            searching.cells[i] = searching.flow.next(searching.cells[i]);
+        }
+        return searching.cells[0];
+    }
+}
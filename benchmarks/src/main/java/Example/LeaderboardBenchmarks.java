@@ -0,0 +1,70 @@
+package Example;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Adding a score to a leaderboard of a given size, and ranking and paging
+ * through it. Adding keeps growing the board, so it is timed in shots of
+ * {@link #ADDS} and stops after a few of them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LeaderboardBenchmarks {
+    private static final long WEEK = 7L * 24 * 60 * 60 * 1000;
+    private static final int ADDS = 20_000;
+
+    @Param({"1000", "1000000"})
+    public int scores;
+
+    private Leaderboard board;
+    private Random random;
+    private long time;
+
+    @Setup
+    public void setUp() {
+        random = new Random(42);
+        board = new Leaderboard();
+        for (int i = 0; i < scores; i++) {
+            board.add(new ScoreStore.Score("p", random.nextInt(100_000), 1 + random.nextInt(3),
+                    random.nextInt(52) * WEEK));
+        }
+        time = scores;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OperationsPerInvocation(ADDS)
+    public void add() {
+        for (int i = 0; i < ADDS; i++) {
+            board.add(new ScoreStore.Score("p", random.nextInt(100_000), 1 + random.nextInt(3), time++));
+        }
+    }
+
+    @Benchmark
+    public int rank() {
+        return Leaderboard.rank(board.level(2), random.nextInt(100_000));
+    }
+
+    @Benchmark
+    public int page() {
+        return board.all().get(random.nextInt(board.size())).score;
+    }
+}
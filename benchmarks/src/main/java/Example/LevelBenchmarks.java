@@ -0,0 +1,53 @@
+package Example;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Laying out a level's bricks and putting the food down. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LevelBenchmarks {
+    @Param({"40x30", "1000x1000"})
+    public String board;
+
+    @Param({"1", "2", "3", "6"})
+    public int level;
+
+    private GameEngine engine;
+
+    @Setup
+    public void setUp() {
+        int cols = Integer.parseInt(board.substring(0, board.indexOf('x')));
+        int rows = Integer.parseInt(board.substring(board.indexOf('x') + 1));
+        engine = new GameEngine(cols, rows, new Random(7), () -> 0);
+        engine.loadLevel(level);
+    }
+
+    @Benchmark
+    public int loadObstaclesForLevel() {
+        engine.loadLevel(level);
+        return engine.getObstacleCount();
+    }
+
+    @Benchmark
+    public int repositionFood() {
+        engine.repositionFood();
+        return engine.getFoodX();
+    }
+}
@@ -0,0 +1,50 @@
+package Example;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A {@link Lookahead} decision, searching 8 moves deep with a window of 4,
+ * and the tick it decides, starting a new game on a death. A table of two
+ * entries is as good as none, for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LookaheadBenchmarks {
+    @Param({"2", "65536"})
+    public int entries;
+
+    private Lookahead pilot;
+    private GameEngine engine;
+    private long games;
+
+    @Setup
+    public void setUp() {
+        pilot = new Lookahead(new TranspositionTable(entries), 8, 4);
+        engine = new GameEngine(40, 30, new GameRandom(), 100);
+        games = 0;
+        engine.restart(games, 2);
+    }
+
+    @Benchmark
+    public void decide() {
+        if (engine.step(pilot.decide(engine)).isDeath()) {
+            engine.restart(++games, 2);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package Example;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The snake moving and checking what it ran into: the body alone, the
+ * engine's per-tick collision work against body and bricks, and whole
+ * engine ticks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SnakeBenchmarks {
+    private static final int SIDE = 1000;
+    // the even rows hold this many cells, after which the snake goes round again
+    private static final int TRACK = SIDE * SIDE / 2;
+
+    @Param({"100", "10000", "500000"})
+    public int length;
+
+    @Param({"0", "10000"})
+    public int obstacles;
+
+    private SnakeBody body;
+    private OccupancyGrid grid;
+    private int track;
+    private int probe;
+
+    private long[] now;
+    private GameEngine engine;
+
+    /**
+     * A body of {@code length} on a 1000x1000 board, running along the
+     * even rows with the bricks on the odd ones so nothing dies.
+     */
+    @Setup
+    public void setUp() {
+        body = new SnakeBody();
+        grid = new OccupancyGrid(SIDE, SIDE);
+        Random random = new Random(42);
+        for (int i = 0; i < obstacles; i++) {
+            grid.set(random.nextInt(SIDE), random.nextInt(SIDE / 2) * 2 + 1, OccupancyGrid.OBSTACLE);
+        }
+        for (int t = 0; t < length; t++) {
+            body.pushHead(SnakeBody.pack(x(t), y(t)));
+            grid.set(x(t), y(t), OccupancyGrid.BODY);
+        }
+        track = length % TRACK;
+
+        now = new long[1];
+        engine = new GameEngine(40, 30, new Random(7), () -> now[0]);
+        engine.loadLevel(1);
+    }
+
+    private static int x(int t) {
+        return t % SIDE;
+    }
+
+    private static int y(int t) {
+        return t % TRACK / SIDE * 2;
+    }
+
+    /** Moving the body one cell: the head goes on, the tail comes off. */
+    private int nextTrack() {
+        int t = track;
+        track = t + 1 == TRACK ? 0 : t + 1;
+        return t;
+    }
+
+    @Benchmark
+    public int move() {
+        int t = nextTrack();
+        body.pushHead(SnakeBody.pack(x(t), y(t)));
+        return body.popTail();
+    }
+
+    /** A tick's collision work: the tail leaves, the head's cell is looked up for body and bricks, the head enters. */
+    @Benchmark
+    public int checkCollision() {
+        int t = nextTrack();
+        int tail = body.popTail();
+        grid.clear(SnakeBody.x(tail), SnakeBody.y(tail), OccupancyGrid.BODY);
+        int hit = grid.get(x(t), y(t)) & OccupancyGrid.BLOCKED;
+        body.pushHead(SnakeBody.pack(x(t), y(t)));
+        grid.set(x(t), y(t), OccupancyGrid.BODY);
+        return hit;
+    }
+
+    /** Whether a cell holds a brick, which is all checking for obstacles takes now. */
+    @Benchmark
+    public boolean checkCollisionWithObstacles() {
+        int t = probe;
+        probe = t + 1 == SIDE * SIDE ? 0 : t + 1;
+        return grid.has(t % SIDE, t / SIDE, OccupancyGrid.OBSTACLE);
+    }
+
+    /** A whole 40x30 engine tick, the snake going round the edge and starting over when it dies. */
+    @Benchmark
+    public int tick() {
+        now[0] += 100;
+        GameEngine.Outcome outcome = engine.step(Fixtures.aroundTheEdge(engine));
+        if (outcome.isDeath()) {
+            engine.reset();
+        }
+        return outcome.ordinal();
+    }
+}
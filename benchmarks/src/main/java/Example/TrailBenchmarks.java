@@ -0,0 +1,80 @@
+package Example;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * What the {@link MyFrame.MySnake} trail costs each frame: checking it for
+ * a crossing (eatBody) as it moves on, and drawing the body along it
+ * (drawBody) into an offscreen image.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class TrailBenchmarks {
+    // MySnake draws a segment every num-th spot back
+    private static final int NUM = 25 / 5;
+
+    @Param({"100", "1000", "10000"})
+    public int length;
+
+    private TrailBuffer eating;
+    private TrailBuffer drawing;
+    private int next;
+    private Image segment;
+    private Graphics2D g;
+
+    @Setup
+    public void setUp() {
+        eating = new TrailBuffer();
+        drawing = new TrailBuffer();
+        for (int i = 0; i < length; i++) {
+            eating.add(i % 800, i / 800);
+            drawing.add(i % 850, 40 + (i / 850) * 25 % 500);
+        }
+        next = length;
+        segment = Fixtures.syntheticSprites()[SpriteAtlas.SNAKE_BODY];
+        g = new BufferedImage(870, 560, BufferedImage.TYPE_INT_RGB).createGraphics();
+    }
+
+    @TearDown
+    public void tearDown() {
+        g.dispose();
+    }
+
+    /** The crossing check, then the new spot added and the oldest dropped. */
+    @Benchmark
+    public boolean eatBody() {
+        int i = next++;
+        boolean crossed = eating.crossesItself();
+        eating.add(i % 800, (i / 800) % 800);
+        eating.removeOldest();
+        return crossed;
+    }
+
+    @Benchmark
+    public void drawBody() {
+        int last = drawing.size() - 1 - NUM;
+        for (int i = NUM; i <= last; i += NUM) {
+            g.drawImage(segment, drawing.getX(i), drawing.getY(i), null);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package Example;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Ticks and frames on a chunked world, the snake wandering off in long
+ * straight runs so chunks keep being made and thrown away. Prints how
+ * many chunks were loaded at the end, which should not grow with the
+ * world.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class WorldBenchmarks {
+    @Param({"256", "32767"})
+    public int side;
+
+    private WorldEngine engine;
+    private Random turns;
+    private WorldRenderer renderer;
+    private Graphics2D g;
+
+    @Setup
+    public void setUp() {
+        engine = new WorldEngine(new ChunkedWorld(side, side, 7, 2), new Random(7));
+        turns = new Random(11);
+        renderer = new WorldRenderer(new SpriteAtlas(null, Fixtures.syntheticSprites()));
+        g = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB).createGraphics();
+    }
+
+    @TearDown
+    public void tearDown() {
+        g.dispose();
+        ChunkedWorld world = engine.getWorld();
+        System.out.println("loaded " + world.getLoadedChunks() + " of " + world.getChunkCols() * world.getChunkRows()
+                + " chunks, generated " + world.getGeneratedChunks());
+    }
+
+    @Benchmark
+    public int tick() {
+        GameEngine.Outcome outcome = engine.step();
+        if (outcome.isDeath()) {
+            engine.reset();
+        }
+        Fixtures.wander(engine, turns);
+        return outcome.ordinal();
+    }
+
+    /** The 800x600 view around the head, zoomed out to half size. */
+    @Benchmark
+    public int frame() {
+        renderer.draw(g, null, engine, SpriteAtlas.BRICK + 1, 800, 600, 0.5);
+        return renderer.getChunksDrawn();
+    }
+}